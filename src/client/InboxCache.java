@@ -0,0 +1,367 @@
+package client;
+
+import common.InboxDelta;
+import common.InboxEntry;
+import common.MessageView;
+import common.StatusCode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Η τοπική (στον δίσκο) cache του γραμματοκιβωτίου ενός χρήστη στη μεριά του client. <br>
+ *
+ * Για κάθε server (διεύθυνση και port) και authToken διατηρείται ένα αρχείο με την έκδοση του γραμματοκιβωτίου από
+ * τον τελευταίο συγχρονισμό, τις εγγραφές της λίστας μηνυμάτων και το περιεχόμενο των μηνυμάτων που έχουν ήδη
+ * διαβαστεί. Έτσι, η εμφάνιση της λίστας μηνυμάτων λαμβάνει από τον server μόνο τις μεταβολές (InboxDelta), ενώ
+ * η επανάληψη της ανάγνωσης ενός μηνύματος χρειάζεται μόνο τον (φθηνό) συγχρονισμό των μεταβολών και όχι το
+ * περιεχόμενό του. Το περιεχόμενο ενός μηνύματος διατηρείται μόνο όσο το μήνυμα ανήκει στη λίστα του τελευταίου
+ * συγχρονισμού, οπότε ένα μήνυμα που διαγράφηκε (από αυτόν ή άλλον client) δεν εμφανίζεται πλέον από την cache. <br>
+ *
+ * Η cache είναι απενεργοποιημένη εξ ορισμού και ενεργοποιείται με -Dmessaging.cache=true. Αποθηκεύεται στον φάκελο
+ * ~/.messaging-cache (ή στον φάκελο του system property messaging.cacheDir) και περιέχει το κείμενο των μηνυμάτων
+ * χωρίς κρυπτογράφηση. Για τον λόγο αυτό, το όνομα του αρχείου προκύπτει από hash (SHA-256) του server και του
+ * authToken, ώστε να μη φανερώνει το token, ενώ σε συστήματα POSIX ο φάκελος και τα αρχεία δημιουργούνται με
+ * δικαιώματα μόνο για τον ιδιοκτήτη (700/600). Η cache είναι βοηθητική: σε περίπτωση σφάλματος ανάγνωσης ξεκινά
+ * κενή και σφάλματα εγγραφής αγνοούνται.
+ *
+ * @author Ioannis Baraklilis
+ */
+class InboxCache {
+    /** Υποδεικνύει αν το σύστημα αρχείων υποστηρίζει δικαιώματα POSIX. */
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    /** Το αρχείο της cache. */
+    private final Path file;
+
+    /** Η έκδοση του γραμματοκιβωτίου από τον τελευταίο συγχρονισμό ή -1 αν δεν έχει γίνει συγχρονισμός. */
+    private long version = -1;
+
+    /** Ο μεγαλύτερος κωδικός μηνύματος που έχει ληφθεί από τον server ή -1 αν δεν υπάρχει. */
+    private int highWaterMark = -1;
+
+    /** Τα μηνύματα της cache ανά κωδικό. Η σειρά των κωδικών είναι και η σειρά άφιξης των μηνυμάτων. */
+    private final TreeMap<Integer, CachedMessage> messages = new TreeMap<>();
+
+    /** Υποδεικνύει αν η cache έχει μεταβληθεί από τη φόρτωσή της. */
+    private boolean modified;
+
+    /** Ένα μήνυμα της cache. */
+    private static class CachedMessage {
+        /** Ο αποστολέας του μηνύματος. */
+        private final String sender;
+
+        /** Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί. */
+        private boolean read;
+
+        /** Το περιεχόμενο του μηνύματος ή null αν δεν έχει ληφθεί ακόμα. */
+        private String body;
+
+        CachedMessage(String sender, boolean read, String body) {
+            this.sender = sender;
+            this.read = read;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Δημιουργεί (κενή) cache που αποθηκεύεται στο αρχείο file.
+     * @param file Το αρχείο της cache.
+     */
+    private InboxCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Επιστρέφει την cache του χρήστη με το δοσμένο authToken στον δοσμένο server, φορτώνοντάς την από τον δίσκο.
+     * @param host Η διεύθυνση του server.
+     * @param portNumber Η port του server.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Η cache ή null αν η cache δεν έχει ενεργοποιηθεί.
+     */
+    static InboxCache open(String host, int portNumber, int authToken) {
+        if (!"true".equalsIgnoreCase(System.getProperty("messaging.cache"))){
+            return null;
+        }
+
+        String directory = System.getProperty("messaging.cacheDir",
+                Paths.get(System.getProperty("user.home"), ".messaging-cache").toString());
+        String fileName = hash(host + ":" + portNumber + ":" + authToken) + ".cache";
+
+        InboxCache cache = new InboxCache(Paths.get(directory, fileName));
+        if (Files.exists(cache.file)){
+            try {
+                cache.load();
+            } catch (IOException e){ // Κατεστραμμένη cache: ξεκινά κενή και θα γίνει πλήρης συγχρονισμός.
+                cache.version = -1;
+                cache.highWaterMark = -1;
+                cache.messages.clear();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Επιστρέφει το hash SHA-256 (σε δεκαεξαδική μορφή) του κειμένου s.
+     * @param s Το κείμενο.
+     * @return Το hash του κειμένου.
+     */
+    private static String hash(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(2 * digest.length);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e){ // Το SHA-256 είναι διαθέσιμο σε κάθε JVM.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Επιστρέφει τα δικαιώματα με τα οποία δημιουργούνται οι φάκελοι ή τα αρχεία της cache.
+     * @param directory Αν πρόκειται για φάκελο.
+     * @return Τα δικαιώματα μόνο για τον ιδιοκτήτη ή κανένα χαρακτηριστικό αν το σύστημα δεν υποστηρίζει POSIX.
+     */
+    private static FileAttribute<?>[] ownerOnly(boolean directory) {
+        if (!POSIX){
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString(directory ? "rwx------" : "rw-------"))};
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Εφαρμόζει στην cache τις μεταβολές που επέστρεψε ο server.
+     * @param delta Οι μεταβολές του γραμματοκιβωτίου.
+     */
+    void apply(InboxDelta delta) {
+        if (delta.isFullResync()){
+            // Η λίστα αντικαθίσταται, διατηρώντας το περιεχόμενο των μηνυμάτων που έχουν ήδη ληφθεί.
+            TreeMap<Integer, CachedMessage> resynced = new TreeMap<>();
+            highWaterMark = -1;
+            for (InboxEntry entry : delta.getNewEntries()) {
+                resynced.put(entry.getMessageId(), new CachedMessage(entry.getSender(), entry.isRead(),
+                        getCachedBody(entry.getMessageId())));
+                highWaterMark = Math.max(highWaterMark, entry.getMessageId());
+            }
+            messages.clear();
+            messages.putAll(resynced);
+        } else {
+            if (delta.getVersion() == version){ // Καμία μεταβολή.
+                return;
+            }
+
+            for (int id : delta.getReadIds()) {
+                CachedMessage m = messages.get(id);
+                if (m != null){
+                    m.read = true;
+                }
+            }
+            for (int id : delta.getDeletedIds()) {
+                messages.remove(id);
+            }
+            for (InboxEntry entry : delta.getNewEntries()) {
+                messages.put(entry.getMessageId(), new CachedMessage(entry.getSender(), entry.isRead(),
+                        getCachedBody(entry.getMessageId())));
+                highWaterMark = Math.max(highWaterMark, entry.getMessageId());
+            }
+        }
+
+        version = delta.getVersion();
+        modified = true;
+    }
+
+    /**
+     * Επιστρέφει τις εγγραφές της λίστας μηνυμάτων της cache, με σειρά άφιξης.
+     * @return Οι εγγραφές της λίστας μηνυμάτων.
+     */
+    InboxEntry[] getEntries() {
+        InboxEntry[] entries = new InboxEntry[messages.size()];
+        int i = 0;
+        for (Map.Entry<Integer, CachedMessage> e : messages.entrySet()) {
+            entries[i++] = new InboxEntry(e.getKey(), e.getValue().sender, e.getValue().read);
+        }
+        return entries;
+    }
+
+    /**
+     * Επιστρέφει το μήνυμα με κωδικό messageId, αν το περιεχόμενό του υπάρχει στην cache. Επειδή το περιεχόμενο
+     * διατηρείται μόνο για μηνύματα της λίστας του τελευταίου συγχρονισμού, ο καλών πρέπει πρώτα να συγχρονίσει την
+     * cache (βλ. apply), ώστε να μην εμφανιστεί μήνυμα που έχει διαγραφεί από άλλον client.
+     * @param messageId Ο κωδικός του μηνύματος.
+     * @return Ο αποστολέας και το περιεχόμενο του μηνύματος ή null αν το περιεχόμενο δεν υπάρχει στην cache.
+     */
+    MessageView getCachedMessage(int messageId) {
+        CachedMessage m = messages.get(messageId);
+        return m != null && m.body != null ? new MessageView(StatusCode.OK, messageId, m.sender, m.body) : null;
+    }
+
+    /**
+     * Επιστρέφει το περιεχόμενο του μηνύματος με κωδικό messageId, αν υπάρχει στην cache.
+     * @param messageId Ο κωδικός του μηνύματος.
+     * @return Το περιεχόμενο ή null αν δεν υπάρχει στην cache.
+     */
+    private String getCachedBody(int messageId) {
+        CachedMessage m = messages.get(messageId);
+        return m != null ? m.body : null;
+    }
+
+    /**
+     * Αποθηκεύει στην cache το περιεχόμενο ενός μηνύματος που διαβάστηκε από τον server (και πλέον είναι διαβασμένο).
+     * Το περιεχόμενο αποθηκεύεται μόνο αν το μήνυμα ανήκει στη λίστα του τελευταίου συγχρονισμού: ένα νεότερο μήνυμα
+     * θα ερχόταν ξανά ως νέο και η διαγραφή του δε θα αναφερόταν ποτέ στις μεταβολές. Η έκδοση της cache δεν αλλάζει,
+     * οπότε ο επόμενος συγχρονισμός θα φέρει κανονικά τις μεταβολές.
+     * @param message Το μήνυμα που διαβάστηκε.
+     */
+    void putMessage(MessageView message) {
+        CachedMessage m = messages.get(message.getMessageId());
+        if (m != null){
+            m.read = true;
+            m.body = message.getBody();
+            modified = true;
+        }
+    }
+
+    /**
+     * Αφαιρεί από την cache το μήνυμα με κωδικό messageId (π.χ. μετά τη διαγραφή του από αυτόν τον client).
+     * @param messageId Ο κωδικός του μηνύματος.
+     */
+    void removeMessage(int messageId) {
+        if (messages.remove(messageId) != null){
+            modified = true;
+        }
+    }
+
+    /**
+     * Αφαιρεί από την cache τα μηνύματα με κωδικό από fromId έως και toId (μετά τη διαγραφή τους από αυτόν τον client).
+     * @param fromId Ο μικρότερος κωδικός του διαστήματος.
+     * @param toId Ο μεγαλύτερος κωδικός του διαστήματος.
+     */
+    void removeMessageRange(int fromId, int toId) {
+        if (fromId > toId){
+            return;
+        }
+        Map<Integer, CachedMessage> range = messages.subMap(fromId, true, toId, true);
+        if (!range.isEmpty()){
+            range.clear();
+            modified = true;
+        }
+    }
+
+    /**
+     * Αφαιρεί από την cache τα διαβασμένα μηνύματα (μετά τη διαγραφή τους από αυτόν τον client). Όσα διαβάστηκαν από
+     * άλλον client και δεν είναι ακόμα σημειωμένα ως διαβασμένα στην cache αφαιρούνται με τον επόμενο συγχρονισμό.
+     */
+    void removeReadMessages() {
+        if (messages.values().removeIf(m -> m.read)){
+            modified = true;
+        }
+    }
+
+    /**
+     * Αποθηκεύει την cache στον δίσκο, αν έχει μεταβληθεί. Η εγγραφή γίνεται σε προσωρινό αρχείο που στη συνέχεια
+     * αντικαθιστά το αρχείο της cache, ώστε ταυτόχρονες εκτελέσεις του client να μη βλέπουν μισογραμμένο αρχείο.
+     */
+    void save() {
+        if (!modified){
+            return;
+        }
+
+        try {
+            if (!Files.isDirectory(file.getParent())){
+                Files.createDirectories(file.getParent(), ownerOnly(true));
+            }
+            Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp", ownerOnly(false));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeLong(version);
+                out.writeInt(highWaterMark);
+                out.writeInt(messages.size());
+                for (Map.Entry<Integer, CachedMessage> e : messages.entrySet()) {
+                    out.writeInt(e.getKey());
+                    writeString(out, e.getValue().sender);
+                    out.writeBoolean(e.getValue().read);
+                    writeString(out, e.getValue().body);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } catch (IOException e){
+            // Η cache είναι βοηθητική: αν δεν αποθηκευτεί, ο επόμενος συγχρονισμός θα φέρει ξανά τις μεταβολές.
+        }
+    }
+
+    /**
+     * Φορτώνει την cache από τον δίσκο.
+     * @throws IOException Σε περίπτωση σφάλματος ανάγνωσης.
+     */
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            version = in.readLong();
+            highWaterMark = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                String sender = readString(in);
+                boolean read = in.readBoolean();
+                messages.put(id, new CachedMessage(sender, read, readString(in)));
+            }
+        }
+    }
+
+    /**
+     * Γράφει το κείμενο s ως μήκος και bytes σε UTF-8.
+     * @param out Η ροή εξόδου.
+     * @param s Το κείμενο ή null.
+     * @throws IOException Σε περίπτωση σφάλματος εγγραφής.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null){
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Διαβάζει κείμενο που γράφτηκε με την writeString.
+     * @param in Η ροή εισόδου.
+     * @return Το κείμενο ή null.
+     * @throws IOException Σε περίπτωση σφάλματος ανάγνωσης.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,18 @@
 package client;
 
+import common.BulkOperationResult;
 import common.ClientQueries;
+import common.InboxEntry;
+import common.InboxSnapshot;
 import common.InvalidAuthTokenException;
+import common.MessageView;
+import common.StatusCode;
 
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.Arrays;
 
 /**
  * <pre>
@@ -49,13 +55,44 @@ public class MessagingClient {
      *      - FN_ID = 4: Show Inbox. Ορίσματα στην εκτέλεση: ip port_number 4 authToken.
      *          Εμφανίζει τη λίστα με όλα τα μηνύματα για έναν συγκεκριμένο χρήστη.
      *          Δείχνει μια λίστα με όλα τα μηνύματα που υπάρχουν στο messagebox του χρήστη.
+     *          Αν έχει ενεργοποιηθεί η τοπική cache (-Dmessaging.cache=true, βλ. InboxCache), η λίστα διατηρείται σε
+     *          αυτήν και από τον Server λαμβάνονται μόνο οι μεταβολές.
      *      - FN_ID = 5: ReadMessage. Ορίσματα στην εκτέλεση: ip port_number 5 authToken message_id.
      *          Αυτή η λειτουργία εμφανίζει το περιεχόμενο ενός μηνύματος του χρήστη με id message_id.
-     *          Έπειτα το μήνυμα μαρκάρεται ως διαβασμένο.
+     *          Έπειτα το μήνυμα μαρκάρεται ως διαβασμένο. Αν το μήνυμα έχει ήδη διαβαστεί από αυτόν τον client,
+     *          εμφανίζεται από την τοπική cache (αν έχει ενεργοποιηθεί), μετά από συγχρονισμό των μεταβολών ώστε να
+     *          μην εμφανιστεί μήνυμα που έχει διαγραφεί.
      *          Αν δεν υπάρχει το μήνυμα το πρόγραμμα εκτυπώνει μήνυμα σφάλματος.
      *      - FN_ID = 6: DeleteMessage. Ορίσματα στην εκτέλεση: ip port number 6 authToken message_id.
      *          Αυτή η λειτουργία διαγράφει το μήνυμα με id message_id.
       *         Αν δεν υπάρχει το μήνυμα το πρόγραμμα εκτυπώνει μήνυμα σφάλματος.
+     *      - FN_ID = 7: CreateGroup. Ορίσματα στην εκτέλεση: ip port_number 7 authToken group_name member1 member2 ...
+     *          Δημιουργεί μία ομάδα χρηστών με όνομα group_name και μέλη τους χρήστες member1, member2, ...
+     *      - FN_ID = 8: SendGroupMessage. Ορίσματα στην εκτέλεση: ip port_number 8 authToken group_name message_body.
+     *          Στέλνει μήνυμα (message_body) σε όλα τα μέλη της ομάδας με όνομα group_name. Μόνο ο δημιουργός και
+     *          τα μέλη της ομάδας μπορούν να στέλνουν μηνύματα σε αυτήν.
+     *      - FN_ID = 9: SendMessageToMany. Ορίσματα στην εκτέλεση: ip port_number 9 authToken message_body recipient1 recipient2 ...
+     *          Στέλνει μήνυμα (message_body) σε όλους τους χρήστες recipient1, recipient2, ...
+     *      - FN_ID = 10: InboxSummary. Ορίσματα στην εκτέλεση: ip port_number 10 authToken.
+     *          Εμφανίζει το πλήθος των μηνυμάτων, το πλήθος των μη διαβασμένων μηνυμάτων και τον κωδικό του νεότερου
+     *          μηνύματος του χρήστη, χωρίς να λαμβάνει τα ίδια τα μηνύματα.
+     *      - FN_ID = 11: DeleteMessages. Ορίσματα στην εκτέλεση: ip port_number 11 authToken message_id1 message_id2 ...
+     *          Διαγράφει με ένα αίτημα όλα τα μηνύματα με τους δοσμένους κωδικούς.
+     *      - FN_ID = 12: DeleteMessageRange. Ορίσματα στην εκτέλεση: ip port_number 12 authToken from_id to_id.
+     *          Διαγράφει με ένα αίτημα όλα τα μηνύματα με κωδικό από from_id έως και to_id.
+     *      - FN_ID = 13: DeleteReadMessages. Ορίσματα στην εκτέλεση: ip port_number 13 authToken.
+     *          Διαγράφει με ένα αίτημα όλα τα διαβασμένα μηνύματα.
+     *      - FN_ID = 14: MarkAllAsRead. Ορίσματα στην εκτέλεση: ip port_number 14 authToken.
+     *          Σημειώνει όλα τα μηνύματα ως διαβασμένα.
+     *      - FN_ID = 15: ReadOldestUnread. Ορίσματα στην εκτέλεση: ip port_number 15 authToken count.
+     *          Εμφανίζει το περιεχόμενο των count παλαιότερων μη διαβασμένων μηνυμάτων, τα οποία έπειτα μαρκάρονται
+     *          ως διαβασμένα.
+     *      - FN_ID = 16: ShowInboxIfModified. Ορίσματα στην εκτέλεση: ip port_number 16 authToken last_version.
+     *          Εμφανίζει την έκδοση του γραμματοκιβωτίου και, μόνο αν αυτό έχει αλλάξει από την έκδοση last_version,
+     *          τη λίστα με όλα τα μηνύματα του χρήστη (για πρώτη λήψη δίνεται last_version = -1).
+     *      - FN_ID = 17: CreateAccounts. Ορίσματα στην εκτέλεση: ip port_number 17 username1 username2 ...
+     *          Δημιουργεί με ένα αίτημα ένα account για κάθε username και εμφανίζει, ανά γραμμή, το username και το
+     *          token του νέου χρήστη ή μήνυμα λάθους.
      * </pre>
      * @param args Ορίσματα κλήσης της διεπαφής του χρήστη.
      *             <p>Πρέπει να είναι του τύπου: ip port_number FN_ID args.</p>
@@ -148,7 +185,7 @@ public class MessagingClient {
 
                     try {
                         // Εμφανίζω στον χρήστη την απάντηση του Server.
-                        System.out.println(queriesToServer.sendMessage(authToken, recipient, messageBody));
+                        System.out.println(queriesToServer.sendMessageStatus(authToken, recipient, messageBody).getDescription());
                     } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
                         System.out.println(e.getMessage());
                     }
@@ -167,12 +204,21 @@ public class MessagingClient {
                             String.format("%s%n%s", "Invalid authToken argument.", case4CorrectUsage));
 
                     try {
-                        // Λαμβάνω λίστα με το μηνύματα για τον χρήστη.
-                        String[] inbox = queriesToServer.showInbox(authToken);
+                        // Λαμβάνω λίστα με το μηνύματα για τον χρήστη. Αν υπάρχει τοπική cache, λαμβάνονται από τον
+                        // Server μόνο οι μεταβολές από τον τελευταίο συγχρονισμό της.
+                        InboxEntry[] inbox;
+                        InboxCache cache = InboxCache.open(host, portNumber, authToken);
+                        if (cache != null){
+                            cache.apply(queriesToServer.syncInbox(authToken, cache.getVersion(), cache.getHighWaterMark()));
+                            cache.save();
+                            inbox = cache.getEntries();
+                        } else {
+                            inbox = queriesToServer.showInboxEntries(authToken);
+                        }
 
-                        // Τυπώνω το περιεχόμενο της λίστας
-                        for (String s : inbox) {
-                            System.out.println(s);
+                        // Τυπώνω το περιεχόμενο της λίστας (η μορφοποίηση γίνεται από τον client).
+                        for (InboxEntry entry : inbox) {
+                            System.out.println(entry);
                         }
                     } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
                         System.out.println(e.getMessage());
@@ -198,8 +244,27 @@ public class MessagingClient {
 
 
                     try {
+                        // Αν το μήνυμα έχει ήδη διαβαστεί από αυτόν τον client, εμφανίζεται από την τοπική cache χωρίς
+                        // να ληφθεί ξανά το περιεχόμενό του. Πρώτα συγχρονίζονται οι μεταβολές (αν η cache έχει
+                        // συγχρονιστεί ποτέ), ώστε ένα μήνυμα που διαγράφηκε να μην εμφανίζεται από την cache.
+                        InboxCache cache = InboxCache.open(host, portNumber, authToken);
+                        MessageView message = null;
+                        if (cache != null && cache.getVersion() >= 0){
+                            cache.apply(queriesToServer.syncInbox(authToken, cache.getVersion(), cache.getHighWaterMark()));
+                            message = cache.getCachedMessage(messageId);
+                        }
+                        if (message == null){
+                            message = queriesToServer.readMessageView(authToken, messageId);
+                            if (cache != null && message.getStatus() == StatusCode.OK){
+                                cache.putMessage(message);
+                            }
+                        }
+                        if (cache != null){
+                            cache.save();
+                        }
+
                         // Εμφανίζω στον χρήστη την απάντηση του Server.
-                        System.out.println(queriesToServer.readMessage(authToken, messageId));
+                        System.out.println(message);
                     } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
                         System.out.println(e.getMessage());
                     }
@@ -225,11 +290,302 @@ public class MessagingClient {
 
                     try {
                         // Εμφανίζω στον χρήστη την απάντηση του Server.
-                        System.out.println(queriesToServer.deleteMessage(authToken, messageId));
+                        StatusCode status = queriesToServer.deleteMessageStatus(authToken, messageId);
+
+                        // Το μήνυμα αφαιρείται και από την τοπική cache, ώστε να μην εμφανίζεται πλέον από αυτήν.
+                        InboxCache cache = InboxCache.open(host, portNumber, authToken);
+                        if (cache != null && status == StatusCode.OK){
+                            cache.removeMessage(messageId);
+                            cache.save();
+                        }
+                        System.out.println(status.getDescription());
                     } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
                         System.out.println(e.getMessage());
                     }
                     break;
+                case 7:
+                    String case7CorrectUsage = "Correct usage of create group function: " +
+                            "java client <ip> <port number> 7 <authToken> <group_name> <member1> <member2> ...";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 5){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case7CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case7CorrectUsage));
+
+                    // Λαμβάνω το όνομα της ομάδας και τα usernames των μελών της.
+                    String groupName = args[4];
+                    String[] members = Arrays.copyOfRange(args, 5, args.length);
+
+                    try {
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(queriesToServer.createGroup(authToken, groupName, members));
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 8:
+                    String case8CorrectUsage = "Correct usage of send group message function: " +
+                            "java client <ip> <port number> 8 <authToken> <group_name> <message_body>";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 6){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case8CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case8CorrectUsage));
+
+                    try {
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(queriesToServer.sendGroupMessage(authToken, args[4], args[5]));
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 9:
+                    String case9CorrectUsage = "Correct usage of send message to many function: " +
+                            "java client <ip> <port number> 9 <authToken> <message_body> <recipient1> <recipient2> ...";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 6){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case9CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case9CorrectUsage));
+
+                    // Λαμβάνω το περιεχόμενο του μηνύματος και τα usernames των παραληπτών.
+                    messageBody = args[4];
+                    String[] recipients = Arrays.copyOfRange(args, 5, args.length);
+
+                    try {
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(queriesToServer.sendMessageToMany(authToken, recipients, messageBody));
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 10:
+                    String case10CorrectUsage = "Correct usage of inbox summary function: java client <ip> <port number> 10 <authToken>";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 4){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case10CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case10CorrectUsage));
+
+                    try {
+                        // Εμφανίζω στον χρήστη τη σύνοψη του γραμματοκιβωτίου του.
+                        System.out.println(queriesToServer.inboxSummary(authToken));
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 11:
+                    String case11CorrectUsage = "Correct usage of delete messages function: " +
+                            "java client <ip> <port number> 11 <authToken> <message_id1> <message_id2> ...";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 5){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case11CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case11CorrectUsage));
+
+                    // Λαμβάνω τους κωδικούς των μηνυμάτων.
+                    int[] messageIds = new int[args.length - 4];
+                    for (int i = 0; i < messageIds.length; i++) {
+                        messageIds[i] = stringToIntWithErrorHandling(args[i + 4],
+                                String.format("%s%n%s", "Invalid message id argument.", case11CorrectUsage));
+                    }
+
+                    try {
+                        BulkOperationResult result = queriesToServer.deleteMessages(authToken, messageIds);
+
+                        // Τα μηνύματα αφαιρούνται και από την τοπική cache (όσα δε βρέθηκαν στον Server δεν
+                        // υπάρχουν πλέον ούτε εκεί).
+                        InboxCache cache = InboxCache.open(host, portNumber, authToken);
+                        if (cache != null){
+                            for (int id : messageIds) {
+                                cache.removeMessage(id);
+                            }
+                            cache.save();
+                        }
+
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(result);
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 12:
+                    String case12CorrectUsage = "Correct usage of delete message range function: " +
+                            "java client <ip> <port number> 12 <authToken> <from_id> <to_id>";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 6){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case12CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case12CorrectUsage));
+
+                    // Λαμβάνω τα όρια του διαστήματος κωδικών.
+                    int fromId = stringToIntWithErrorHandling(args[4],
+                            String.format("%s%n%s", "Invalid message id argument.", case12CorrectUsage));
+                    int toId = stringToIntWithErrorHandling(args[5],
+                            String.format("%s%n%s", "Invalid message id argument.", case12CorrectUsage));
+
+                    try {
+                        BulkOperationResult result = queriesToServer.deleteMessageRange(authToken, fromId, toId);
+
+                        // Τα μηνύματα του διαστήματος αφαιρούνται και από την τοπική cache.
+                        InboxCache cache = InboxCache.open(host, portNumber, authToken);
+                        if (cache != null){
+                            cache.removeMessageRange(fromId, toId);
+                            cache.save();
+                        }
+
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(result);
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 13:
+                case 14:
+                    String case13CorrectUsage = String.format("Correct usage of %s function: java client <ip> <port number> %d <authToken>",
+                            functionId == 13 ? "delete read messages" : "mark all as read", functionId);
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 4){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case13CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case13CorrectUsage));
+
+                    try {
+                        BulkOperationResult result = functionId == 13
+                                ? queriesToServer.deleteReadMessages(authToken)
+                                : queriesToServer.markAllAsRead(authToken);
+
+                        // Τα διαβασμένα μηνύματα αφαιρούνται και από την τοπική cache.
+                        InboxCache cache = functionId == 13 ? InboxCache.open(host, portNumber, authToken) : null;
+                        if (cache != null){
+                            cache.removeReadMessages();
+                            cache.save();
+                        }
+
+                        // Εμφανίζω στον χρήστη την απάντηση του Server.
+                        System.out.println(result);
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 15:
+                    String case15CorrectUsage = "Correct usage of read oldest unread function: " +
+                            "java client <ip> <port number> 15 <authToken> <count>";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 5){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case15CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case15CorrectUsage));
+
+                    // Λαμβάνω το πλήθος των μηνυμάτων προς ανάγνωση.
+                    int count = stringToIntWithErrorHandling(args[4],
+                            String.format("%s%n%s", "Invalid count argument.", case15CorrectUsage));
+
+                    try {
+                        // Τυπώνω τα μηνύματα που διαβάστηκαν, με τη μορφή "id. (αποστολέας) περιεχόμενο".
+                        for (MessageView message : queriesToServer.readOldestUnread(authToken, count)) {
+                            System.out.println(message.getMessageId() + ". " + message);
+                        }
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 16:
+                    String case16CorrectUsage = "Correct usage of show inbox if modified function: " +
+                            "java client <ip> <port number> 16 <authToken> <last_version>";
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 5){
+                        System.out.println("Invalid argument number.");
+                        System.out.println(case16CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    // Λαμβάνω το authToken μετά από έλεγχο εγκυρότητας του ορίσματος που το περιέχει.
+                    authToken = stringToIntWithErrorHandling(args[3],
+                            String.format("%s%n%s", "Invalid authToken argument.", case16CorrectUsage));
+
+                    // Λαμβάνω την έκδοση του γραμματοκιβωτίου από την τελευταία λήψη.
+                    long lastVersion = 0;
+                    try {
+                        lastVersion = Long.parseLong(args[4]);
+                    } catch (NumberFormatException e){
+                        System.out.println("Invalid version argument.");
+                        System.out.println(case16CorrectUsage);
+                        System.exit(1);
+                    }
+
+                    try {
+                        InboxSnapshot snapshot = queriesToServer.showInboxIfModified(authToken, lastVersion);
+                        System.out.println("Version: " + snapshot.getVersion());
+
+                        // Τυπώνω τη λίστα μόνο αν το γραμματοκιβώτιο έχει αλλάξει.
+                        if (snapshot.isModified()){
+                            for (InboxEntry entry : snapshot.getEntries()) {
+                                System.out.println(entry);
+                            }
+                        } else {
+                            System.out.println("Not modified");
+                        }
+                    } catch (InvalidAuthTokenException e){ // Χειρισμός άκυρου authToken.
+                        System.out.println(e.getMessage());
+                    }
+                    break;
+                case 17:
+                    // Έλεγχος για το αν υπάρχει σωστός αριθμός ορισμάτων.
+                    if (args.length < 4){
+                        System.out.println("Invalid argument number.");
+                        System.out.println("Correct usage of create accounts function: " +
+                                "java client <ip> <port number> 17 <username1> <username2> ...");
+                        System.exit(1);
+                    }
+
+                    // Δημιουργώ με ένα αίτημα τους λογαριασμούς και τυπώνω για τον καθένα το token ή μήνυμα λάθους.
+                    String[] usernames = Arrays.copyOfRange(args, 3, args.length);
+                    String[] results = queriesToServer.createAccounts(usernames);
+                    for (int i = 0; i < usernames.length; i++) {
+                        System.out.println(usernames[i] + "\t" + results[i]);
+                    }
+                    break;
                 default:
                     System.out.println("Given function id argument cannot be matched to implemented function.");
                     System.out.println(CORRECT_USAGE);
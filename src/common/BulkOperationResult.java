@@ -0,0 +1,78 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * Το (συμπαγές) αποτέλεσμα μίας μαζικής λειτουργίας επί του γραμματοκιβωτίου ενός χρήστη, όπως η διαγραφή πολλών
+ * μηνυμάτων ή η σήμανση όλων των μηνυμάτων ως διαβασμένων. <br>
+ *
+ * Σειριοποιείται χειροποίητα (Externalizable) ώστε να μεταφέρεται μέσω RMI με ελάχιστο μέγεθος και κόστος.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class BulkOperationResult implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Το πλήθος των μηνυμάτων που επηρεάστηκαν από τη λειτουργία. */
+    private int affectedMessages;
+
+    /** Οι κωδικοί των μηνυμάτων που ζητήθηκαν ρητά αλλά δε βρέθηκαν στο γραμματοκιβώτιο. */
+    private int[] missingMessageIds;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public BulkOperationResult() {
+        this(0, null);
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της BulkOperationResult που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param affectedMessages Το πλήθος των μηνυμάτων που επηρεάστηκαν από τη λειτουργία.
+     * @param missingMessageIds Οι κωδικοί των μηνυμάτων που ζητήθηκαν ρητά αλλά δε βρέθηκαν. <br>
+     *                          Άν είναι null, θεωρείται κενός πίνακας.
+     */
+    public BulkOperationResult(int affectedMessages, int[] missingMessageIds) {
+        this.affectedMessages = affectedMessages;
+        this.missingMessageIds = missingMessageIds != null ? missingMessageIds : new int[0];
+    }
+
+    public int getAffectedMessages() {
+        return affectedMessages;
+    }
+
+    public int[] getMissingMessageIds() {
+        return missingMessageIds.clone();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(affectedMessages);
+        out.writeInt(missingMessageIds.length);
+        for (int id : missingMessageIds) {
+            out.writeInt(id);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        affectedMessages = in.readInt();
+        missingMessageIds = new int[in.readInt()];
+        for (int i = 0; i < missingMessageIds.length; i++) {
+            missingMessageIds[i] = in.readInt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (missingMessageIds.length == 0){
+            return String.format("OK (%d messages)", affectedMessages);
+        }
+        return String.format("OK (%d messages), not found: %s", affectedMessages,
+                Arrays.toString(missingMessageIds).replaceAll("[\\[\\]]", ""));
+    }
+}
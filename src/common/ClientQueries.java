@@ -25,6 +25,14 @@ public interface ClientQueries extends Remote {
      */
     public String createAccount(String username) throws RemoteException;
 
+    /**
+     * Δημιουργεί με ένα αίτημα ένα account για κάθε ένα από τα δοσμένα usernames (μαζική δημιουργία λογαριασμών).
+     * @param usernames Τα usernames των νέων χρηστών που θα δημιουργηθούν.
+     * @return Για κάθε username (στην ίδια θέση) ό,τι θα επέστρεφε η createAccount: το token του νέου χρήστη,
+     *          "Sorry, the user already exists" (και όταν το username επαναλαμβάνεται στα ορίσματα) ή "Invalid Username".
+     */
+    public String[] createAccounts(String[] usernames) throws RemoteException;
+
     /**
      * Δείχνει μια λίστα με όλα τα accounts που υπάρχουν στο σύστημα.
      * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
@@ -72,4 +80,198 @@ public interface ClientQueries extends Remote {
      * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
      */
     public String deleteMessage(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Δημιουργεί μία ονομαστική ομάδα χρηστών με μέλη τους χρήστες με τα δοσμένα usernames.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του δημιουργού της ομάδας.
+     * @param groupName Το όνομα της νέας ομάδας.
+     * @param members Τα usernames των μελών της ομάδας.
+     * @return "OK", σε περίπτωση επιτυχίας. <br>
+     *         Σε περίπτωση που το όνομα της ομάδας ήδη χρησιμοποιείται, επιστρέφεται "Sorry, the group already exists". <br>
+     *         Σε περίπτωση που το όνομα της ομάδας έχει λάθος μορφή (πρέπει να Αποτελείται μόνο από αλφαριθμητικά και
+     *          τον ειδικό χαρακτήρα "_"), επιστρέφεται "Invalid Group Name". <br>
+     *         Σε περίπτωση που κάποιο μέλος δεν υπάρχει, επιστρέφεται "User does not exist: " ακολουθούμενο από το
+     *          username του και η ομάδα δε δημιουργείται.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public String createGroup(int authToken, String groupName, String[] members) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλα τα μέλη της ομάδας με όνομα groupName. Ο αποστολέας πρέπει να είναι ο
+     * δημιουργός ή μέλος της ομάδας.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param groupName Το όνομα της ομάδας παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return "OK", σε περίπτωση επιτυχίας. <br>
+     *         Σε περίπτωση που η ομάδα δεν υπάρχει, επιστρέφεται "Group does not exist". <br>
+     *         Σε περίπτωση που ο αποστολέας δεν είναι ο δημιουργός ή μέλος της ομάδας, επιστρέφεται
+     *          "Not a member of the group".
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public String sendGroupMessage(int authToken, String groupName, String messageBody) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλους τους χρήστες με username που περιέχεται στο recipients.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipients Τα usernames των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return "OK", σε περίπτωση επιτυχίας. <br>
+     *         Σε περίπτωση που κάποιος παραλήπτης δεν υπάρχει, επιστρέφεται "User does not exist: " ακολουθούμενο από το
+     *          username του και το μήνυμα δεν αποστέλλεται σε κανέναν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public String sendMessageToMany(int authToken, String[] recipients, String messageBody) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει σύνοψη του γραμματοκιβωτίου του χρήστη (πλήθος μηνυμάτων, μη διαβασμένων μηνυμάτων και κωδικό του
+     * νεότερου μηνύματος), χωρίς να αποστέλλει τα ίδια τα μηνύματα.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Η σύνοψη του γραμματοκιβωτίου του χρήστη.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public InboxSummary inboxSummary(int authToken) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Διαγράφει τα μηνύματα του χρήστη με κωδικούς που περιέχονται στο messageIds, με μία μόνο λειτουργία.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageIds Οι κωδικοί των μηνυμάτων προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν και οι κωδικοί που δε βρέθηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public BulkOperationResult deleteMessages(int authToken, int[] messageIds) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Διαγράφει όλα τα μηνύματα του χρήστη με κωδικό στο κλειστό διάστημα [fromId, toId].
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param fromId Ο μικρότερος κωδικός μηνύματος προς διαγραφή.
+     * @param toId Ο μεγαλύτερος κωδικός μηνύματος προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public BulkOperationResult deleteMessageRange(int authToken, int fromId, int toId) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Διαγράφει όλα τα διαβασμένα μηνύματα του χρήστη.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public BulkOperationResult deleteReadMessages(int authToken) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Σημειώνει όλα τα μηνύματα του χρήστη ως διαβασμένα.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Το πλήθος των μηνυμάτων που σημειώθηκαν ως διαβασμένα.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public BulkOperationResult markAllAsRead(int authToken) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει τον αποστολέα και το περιεχόμενο των count παλαιότερων μη διαβασμένων μηνυμάτων του χρήστη.
+     * Έπειτα τα μηνύματα αυτά σημειώνονται ως διαβασμένα. <br>
+     * Ανήκει στο τυποποιημένο (typed) API· η μορφοποίηση σε κείμενο γίνεται από τον client.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param count Το μέγιστο πλήθος μηνυμάτων προς ανάγνωση.
+     * @return Τα μηνύματα που διαβάστηκαν (κωδικός, αποστολέας και περιεχόμενο), από το παλαιότερο στο νεότερο.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public MessageView[] readOldestUnread(int authToken, int count) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Στέλνει το μήνυμα messageBody στο account με username recipient. <br>
+     * Τυποποιημένη (typed) εκδοχή της sendMessage, που επιστρέφει κωδικό κατάστασης αντί για κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipient Το username του παραλήπτη.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας ή USER_DOES_NOT_EXIST αν ο παραλήπτης δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public StatusCode sendMessageStatus(int authToken, String recipient, String messageBody) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει τη λίστα με όλα τα μηνύματα για έναν συγκεκριμένο χρήστη. <br>
+     * Τυποποιημένη (typed) εκδοχή της showInbox, που επιστρέφει εγγραφές αντί για μορφοποιημένο κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Οι εγγραφές της λίστας μηνυμάτων του χρήστη (κωδικός, αποστολέας, κατάσταση ανάγνωσης).
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public InboxEntry[] showInboxEntries(int authToken) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει τον αποστολέα και το περιεχόμενο ενός μηνύματος του χρήστη με id messageId.
+     * Έπειτα το μήνυμα σημειώνεται ως διαβασμένο. <br>
+     * Τυποποιημένη (typed) εκδοχή της readMessage.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς ανάγνωση.
+     * @return Το αποτέλεσμα της ανάγνωσης, με κωδικό κατάστασης MESSAGE_DOES_NOT_EXIST αν το μήνυμα δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public MessageView readMessageView(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Διαγράφει το μήνυμα με id messageId. <br>
+     * Τυποποιημένη (typed) εκδοχή της deleteMessage, που επιστρέφει κωδικό κατάστασης αντί για κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς διαγραφή.
+     * @return OK σε περίπτωση επιτυχίας ή MESSAGE_DOES_NOT_EXIST αν το μήνυμα δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public StatusCode deleteMessageStatus(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Δημιουργεί μία ονομαστική ομάδα χρηστών με μέλη τους χρήστες με τα δοσμένα usernames. <br>
+     * Τυποποιημένη (typed) εκδοχή της createGroup, που επιστρέφει κωδικό κατάστασης αντί για κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του δημιουργού της ομάδας.
+     * @param groupName Το όνομα της νέας ομάδας.
+     * @param members Τα usernames των μελών της ομάδας.
+     * @return OK σε περίπτωση επιτυχίας, GROUP_ALREADY_EXISTS, INVALID_GROUP_NAME ή USER_DOES_NOT_EXIST αν κάποιο
+     *         μέλος δεν υπάρχει (οπότε η ομάδα δε δημιουργείται).
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public StatusCode createGroupStatus(int authToken, String groupName, String[] members) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλα τα μέλη της ομάδας με όνομα groupName. <br>
+     * Τυποποιημένη (typed) εκδοχή της sendGroupMessage, που επιστρέφει κωδικό κατάστασης αντί για κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param groupName Το όνομα της ομάδας παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας, GROUP_DOES_NOT_EXIST ή NOT_A_GROUP_MEMBER.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public StatusCode sendGroupMessageStatus(int authToken, String groupName, String messageBody) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλους τους χρήστες με username που περιέχεται στο recipients. <br>
+     * Τυποποιημένη (typed) εκδοχή της sendMessageToMany, που επιστρέφει κωδικό κατάστασης αντί για κείμενο.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipients Τα usernames των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας ή USER_DOES_NOT_EXIST αν κάποιος παραλήπτης δεν υπάρχει (οπότε το μήνυμα δεν
+     *         αποστέλλεται σε κανέναν).
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public StatusCode sendMessageToManyStatus(int authToken, String[] recipients, String messageBody) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει τη λίστα με όλα τα μηνύματα του χρήστη, μόνο αν το γραμματοκιβώτιο έχει αλλάξει από την έκδοση
+     * lastSeenVersion. Σε διαφορετική περίπτωση επιστρέφεται μόνο η (αμετάβλητη) έκδοση, χωρίς τη λίστα.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param lastSeenVersion Η έκδοση του γραμματοκιβωτίου από την τελευταία λήψη ή -1 αν δεν υπάρχει.
+     * @return Η τρέχουσα έκδοση του γραμματοκιβωτίου και, αν αυτό έχει αλλάξει, οι εγγραφές της λίστας μηνυμάτων.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public InboxSnapshot showInboxIfModified(int authToken, long lastSeenVersion) throws RemoteException, InvalidAuthTokenException;
+
+    /**
+     * Επιστρέφει μόνο τις μεταβολές του γραμματοκιβωτίου του χρήστη από την έκδοση sinceVersion: τα μηνύματα με κωδικό
+     * μεγαλύτερο από highWaterMark και τους κωδικούς των μηνυμάτων που διαγράφηκαν ή διαβάστηκαν στο μεταξύ. Αν αυτό
+     * δεν είναι δυνατό, επιστρέφεται ολόκληρη η λίστα μηνυμάτων (πλήρης συγχρονισμός).
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param sinceVersion Η έκδοση του γραμματοκιβωτίου από τον τελευταίο συγχρονισμό ή -1 αν δεν υπάρχει.
+     * @param highWaterMark Ο μεγαλύτερος κωδικός μηνύματος που έχει λάβει ο client ή -1 αν δεν υπάρχει.
+     * @return Οι μεταβολές του γραμματοκιβωτίου και η τρέχουσα έκδοσή του.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    public InboxDelta syncInbox(int authToken, long sinceVersion, int highWaterMark) throws RemoteException, InvalidAuthTokenException;
 }
@@ -0,0 +1,74 @@
+package common;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Βοηθητικές μέθοδοι για τη χειροποίητη (συμπαγή) σειριοποίηση των αντικειμένων αποτελεσμάτων που ανταλλάσσονται μέσω
+ * RMI και υλοποιούν τη διεπαφή Externalizable.
+ *
+ * @author Ioannis Baraklilis
+ */
+final class CompactIO {
+    /** Σήμανση συμβολοσειράς με τιμή null. */
+    private static final byte NULL_STRING = 0;
+
+    /** Σήμανση συμβολοσειράς που κωδικοποιείται με writeUTF (έως 65535 bytes). */
+    private static final byte SHORT_STRING = 1;
+
+    /** Σήμανση συμβολοσειράς που κωδικοποιείται ως μήκος και χαρακτήρες, επειδή υπερβαίνει το όριο της writeUTF. */
+    private static final byte LONG_STRING = 2;
+
+    /**
+     * Το μέγιστο μήκος συμβολοσειράς που σίγουρα χωράει στο όριο των 65535 bytes της writeUTF
+     * (κάθε χαρακτήρας κωδικοποιείται σε το πολύ 3 bytes).
+     */
+    private static final int MAX_SHORT_STRING_LENGTH = 65535 / 3;
+
+    private CompactIO() {
+    }
+
+    /**
+     * Γράφει τη συμβολοσειρά s (η οποία μπορεί να είναι null ή οποιουδήποτε μήκους) στο out.
+     * @param out Η ροή εξόδου.
+     * @param s Η συμβολοσειρά προς εγγραφή.
+     * @throws IOException Σε περίπτωση σφάλματος εγγραφής.
+     */
+    static void writeString(ObjectOutput out, String s) throws IOException {
+        if (s == null){
+            out.writeByte(NULL_STRING);
+        } else if (s.length() <= MAX_SHORT_STRING_LENGTH){
+            out.writeByte(SHORT_STRING);
+            out.writeUTF(s);
+        } else {
+            out.writeByte(LONG_STRING);
+            out.writeInt(s.length());
+            out.writeChars(s);
+        }
+    }
+
+    /**
+     * Διαβάζει μία συμβολοσειρά που γράφτηκε με τη writeString.
+     * @param in Η ροή εισόδου.
+     * @return Η συμβολοσειρά που διαβάστηκε (ενδεχομένως null).
+     * @throws IOException Σε περίπτωση σφάλματος ανάγνωσης ή άγνωστης σήμανσης.
+     */
+    static String readString(ObjectInput in) throws IOException {
+        byte kind = in.readByte();
+        switch (kind){
+            case NULL_STRING:
+                return null;
+            case SHORT_STRING:
+                return in.readUTF();
+            case LONG_STRING:
+                char[] chars = new char[in.readInt()];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = in.readChar();
+                }
+                return new String(chars);
+            default:
+                throw new IOException("Unknown string encoding: " + kind);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Socket που καταγράφει στατιστικά χρήσης (σύνδεση, bytes, flushes) σε ένα αντικείμενο SocketStatistics και
+ * προαιρετικά προσθέτει επιπλέον buffer στις ροές του. <br>
+ *
+ * Χρησιμοποιείται από τα socket factories του RMI τόσο στη μεριά του client (μέσω connect) όσο και στη μεριά του
+ * server (μέσω ServerSocket.implAccept, οπότε ο server πρέπει να καλέσει την accepted). <br>
+ *
+ * Το RMI της JDK αλλάζει ορισμένες ρυθμίσεις αμέσως μόλις το factory επιστρέψει το socket (TCP_NODELAY πάντα true,
+ * SO_KEEPALIVE true στον client, SO_TIMEOUT ίσο με το sun.rmi.transport.tcp.readTimeout στον server). Γι' αυτό οι
+ * ρυθμίσεις που εφαρμόζονται μέσω της applyTuning "κλειδώνουν" και οι επόμενες αλλαγές τους αγνοούνται.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class CountingSocket extends Socket {
+    /** Τα στατιστικά στα οποία καταγράφεται η χρήση του socket. */
+    private final SocketStatistics statistics;
+
+    /** Το μέγεθος του επιπλέον buffer των ροών (0 για καθόλου). */
+    private final int streamBufferSize;
+
+    /**
+     * Το πλήθος των flushes της ροής εξόδου αυτής της σύνδεσης. Ενημερώνεται μόνο από το νήμα που γράφει στη ροή, αλλά
+     * διαβάζεται από την close, η οποία μπορεί να κληθεί από άλλο νήμα (π.χ. κατά τον καθαρισμό αδρανών συνδέσεων του RMI).
+     */
+    private volatile long connectionFlushes;
+
+    /** Υποδεικνύει αν η σύνδεση έχει καταγραφεί ως ανοιχτή, ώστε το κλείσιμο να καταγράφεται μόνο τότε και μία φορά. */
+    private final AtomicBoolean open = new AtomicBoolean(false);
+
+    /** Η ρύθμιση TCP_NODELAY που έχει κλειδώσει ή null αν μπορεί να αλλάξει. */
+    private Boolean pinnedTcpNoDelay;
+
+    /** Η ρύθμιση SO_KEEPALIVE που έχει κλειδώσει ή null αν μπορεί να αλλάξει. */
+    private Boolean pinnedKeepAlive;
+
+    /** Η ρύθμιση SO_TIMEOUT (ms) που έχει κλειδώσει ή null αν μπορεί να αλλάξει. */
+    private Integer pinnedSoTimeout;
+
+    /** Η ροή εισόδου του socket (δημιουργείται μία φορά, κατά την πρώτη χρήση). */
+    private InputStream inputStream;
+
+    /** Η ροή εξόδου του socket (δημιουργείται μία φορά, κατά την πρώτη χρήση). */
+    private OutputStream outputStream;
+
+    /**
+     * Δημιουργεί ένα μη συνδεδεμένο socket.
+     * @param statistics Τα στατιστικά στα οποία καταγράφεται η χρήση του socket.
+     * @param streamBufferSize Το μέγεθος του επιπλέον buffer των ροών (0 για καθόλου).
+     */
+    public CountingSocket(SocketStatistics statistics, int streamBufferSize) {
+        super();
+        if (statistics == null){
+            throw new IllegalArgumentException("The statistics argument must not be null.");
+        }
+        this.statistics = statistics;
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    @Override
+    public void connect(SocketAddress endpoint, int timeout) throws IOException {
+        super.connect(endpoint, timeout);
+        accepted();
+    }
+
+    /**
+     * Καταγράφει τη σύνδεση ως ανοιχτή. Καλείται από τον server μετά την αποδοχή της σύνδεσης (implAccept).
+     */
+    public void accepted() {
+        if (open.compareAndSet(false, true)){
+            statistics.connectionOpened();
+        }
+    }
+
+    /**
+     * Εφαρμόζει τις ρυθμίσεις tuning στο socket και κλειδώνει όσες έχουν οριστεί, ώστε να μην αντικατασταθούν από
+     * το RMI.
+     * @param tuning Οι ρυθμίσεις των sockets.
+     * @param applyIdleTimeout Αν θα εφαρμοστεί και ο χρόνος αδράνειας (μόνο στη μεριά του server).
+     * @throws SocketException Σε περίπτωση αποτυχίας εφαρμογής κάποιας ρύθμισης.
+     */
+    public void applyTuning(SocketTuning tuning, boolean applyIdleTimeout) throws SocketException {
+        tuning.applyTo(this);
+        if (applyIdleTimeout && tuning.getIdleTimeoutMillis() != null){
+            super.setSoTimeout(tuning.getIdleTimeoutMillis());
+            pinnedSoTimeout = tuning.getIdleTimeoutMillis();
+        }
+        pinnedTcpNoDelay = tuning.getTcpNoDelay();
+        pinnedKeepAlive = tuning.getKeepAlive();
+    }
+
+    @Override
+    public void setTcpNoDelay(boolean on) throws SocketException {
+        if (pinnedTcpNoDelay == null){
+            super.setTcpNoDelay(on);
+        }
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) throws SocketException {
+        if (pinnedKeepAlive == null){
+            super.setKeepAlive(on);
+        }
+    }
+
+    @Override
+    public synchronized void setSoTimeout(int timeout) throws SocketException {
+        if (pinnedSoTimeout == null){
+            super.setSoTimeout(timeout);
+        }
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (inputStream == null){
+            InputStream counting = new CountingInputStream(super.getInputStream());
+            inputStream = streamBufferSize > 0 ? new BufferedInputStream(counting, streamBufferSize) : counting;
+        }
+        return inputStream;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (outputStream == null){
+            OutputStream raw = super.getOutputStream();
+            outputStream = new CountingOutputStream(streamBufferSize > 0 ? new BufferedOutputStream(raw, streamBufferSize) : raw);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (open.compareAndSet(true, false)){
+                statistics.connectionClosed(connectionFlushes);
+            }
+        }
+    }
+
+    /** Ροή εισόδου που μετράει τα bytes που διαβάζονται. */
+    private class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0){
+                statistics.bytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0){
+                statistics.bytesRead(count);
+            }
+            return count;
+        }
+    }
+
+    /** Ροή εξόδου που μετράει τα bytes που γράφονται και τα flushes. */
+    private class CountingOutputStream extends FilterOutputStream {
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            statistics.bytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // Η υλοποίηση της FilterOutputStream γράφει byte προς byte, οπότε προωθώ απευθείας ολόκληρο το τμήμα.
+            out.write(b, off, len);
+            statistics.bytesWritten(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            connectionFlushes++;
+            statistics.flushed();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Οι μεταβολές του γραμματοκιβωτίου ενός χρήστη από μία έκδοση που γνωρίζει ο client (συγχρονισμός διαφορών): τα νέα
+ * μηνύματα (με κωδικό μεγαλύτερο από τον μεγαλύτερο κωδικό που έχει λάβει ο client), οι κωδικοί των μηνυμάτων που
+ * διαγράφηκαν και οι κωδικοί των μηνυμάτων που διαβάστηκαν. <br>
+ *
+ * Αν ο server δεν έχει πλέον καταγεγραμμένες όλες τις μεταβολές από την έκδοση του client, επιστρέφεται πλήρης
+ * συγχρονισμός (fullResync), δηλαδή ολόκληρη η λίστα μηνυμάτων, την οποία ο client χρησιμοποιεί στη θέση της δικής του. <br>
+ *
+ * Σειριοποιείται χειροποίητα (Externalizable), ώστε μία απάντηση χωρίς μεταβολές να αποτελείται από λίγα bytes.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class InboxDelta implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Κενός πίνακας κωδικών, κοινός για όλες τις απαντήσεις χωρίς διαγραφές ή αναγνώσεις. */
+    private static final int[] NO_IDS = new int[0];
+
+    /** Κενός πίνακας εγγραφών, κοινός για όλες τις απαντήσεις χωρίς νέα μηνύματα. */
+    private static final InboxEntry[] NO_ENTRIES = new InboxEntry[0];
+
+    /** Η τρέχουσα έκδοση του γραμματοκιβωτίου. */
+    private long version;
+
+    /** Υποδεικνύει αν το newEntries περιέχει ολόκληρη τη λίστα μηνυμάτων (πλήρης συγχρονισμός). */
+    private boolean fullResync;
+
+    /** Οι εγγραφές των νέων μηνυμάτων ή, σε πλήρη συγχρονισμό, όλων των μηνυμάτων, με σειρά άφιξης. */
+    private InboxEntry[] newEntries;
+
+    /** Οι κωδικοί των (ήδη γνωστών στον client) μηνυμάτων που διαγράφηκαν. */
+    private int[] deletedIds;
+
+    /** Οι κωδικοί των (ήδη γνωστών στον client) μηνυμάτων που σημειώθηκαν ως διαβασμένα. */
+    private int[] readIds;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public InboxDelta() {
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της InboxDelta που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param version Η τρέχουσα έκδοση του γραμματοκιβωτίου.
+     * @param newEntries Οι εγγραφές των νέων μηνυμάτων.
+     * @param deletedIds Οι κωδικοί των μηνυμάτων που διαγράφηκαν.
+     * @param readIds Οι κωδικοί των μηνυμάτων που σημειώθηκαν ως διαβασμένα.
+     */
+    public InboxDelta(long version, InboxEntry[] newEntries, int[] deletedIds, int[] readIds) {
+        this.version = version;
+        this.fullResync = false;
+        this.newEntries = newEntries != null ? newEntries : NO_ENTRIES;
+        this.deletedIds = deletedIds != null ? deletedIds : NO_IDS;
+        this.readIds = readIds != null ? readIds : NO_IDS;
+    }
+
+    /**
+     * Δημιουργεί αποτέλεσμα πλήρους συγχρονισμού.
+     * @param version Η τρέχουσα έκδοση του γραμματοκιβωτίου.
+     * @param entries Οι εγγραφές όλων των μηνυμάτων του γραμματοκιβωτίου.
+     * @return Το αποτέλεσμα πλήρους συγχρονισμού.
+     */
+    public static InboxDelta fullResync(long version, InboxEntry[] entries) {
+        InboxDelta delta = new InboxDelta(version, entries, null, null);
+        delta.fullResync = true;
+        return delta;
+    }
+
+    /**
+     * Δημιουργεί αποτέλεσμα χωρίς μεταβολές.
+     * @param version Η τρέχουσα (αμετάβλητη) έκδοση του γραμματοκιβωτίου.
+     * @return Το αποτέλεσμα χωρίς μεταβολές.
+     */
+    public static InboxDelta notModified(long version) {
+        return new InboxDelta(version, null, null, null);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isFullResync() {
+        return fullResync;
+    }
+
+    public InboxEntry[] getNewEntries() {
+        return newEntries;
+    }
+
+    public int[] getDeletedIds() {
+        return deletedIds;
+    }
+
+    public int[] getReadIds() {
+        return readIds;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(version);
+        out.writeBoolean(fullResync);
+        out.writeInt(newEntries.length);
+        for (InboxEntry entry : newEntries) {
+            entry.writeExternal(out);
+        }
+        writeIds(out, deletedIds);
+        writeIds(out, readIds);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        version = in.readLong();
+        fullResync = in.readBoolean();
+        int count = in.readInt();
+        newEntries = count == 0 ? NO_ENTRIES : new InboxEntry[count];
+        for (int i = 0; i < count; i++) {
+            newEntries[i] = new InboxEntry();
+            newEntries[i].readExternal(in);
+        }
+        deletedIds = readIds(in);
+        readIds = readIds(in);
+    }
+
+    /**
+     * Γράφει τον πίνακα κωδικών ids ως πλήθος ακολουθούμενο από τους κωδικούς.
+     * @param out Η ροή εξόδου.
+     * @param ids Οι κωδικοί.
+     * @throws IOException Σε περίπτωση σφάλματος εγγραφής.
+     */
+    private static void writeIds(ObjectOutput out, int[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (int id : ids) {
+            out.writeInt(id);
+        }
+    }
+
+    /**
+     * Διαβάζει πίνακα κωδικών που γράφτηκε με την writeIds.
+     * @param in Η ροή εισόδου.
+     * @return Οι κωδικοί.
+     * @throws IOException Σε περίπτωση σφάλματος ανάγνωσης.
+     */
+    private static int[] readIds(ObjectInput in) throws IOException {
+        int count = in.readInt();
+        if (count == 0){
+            return NO_IDS;
+        }
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = in.readInt();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,81 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Μία εγγραφή της λίστας μηνυμάτων (inbox) ενός χρήστη: ο μοναδικός κωδικός του μηνύματος, ο αποστολέας του και η
+ * κατάσταση ανάγνωσής του. <br>
+ *
+ * Σειριοποιείται χειροποίητα (Externalizable) ώστε να μεταφέρεται μέσω RMI με ελάχιστο μέγεθος και κόστος.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class InboxEntry implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Ο μοναδικός κωδικός του μηνύματος. */
+    private int messageId;
+
+    /** Ο αποστολέας του μηνύματος. */
+    private String sender;
+
+    /** Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί. */
+    private boolean read;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public InboxEntry() {
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της InboxEntry που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param messageId Ο μοναδικός κωδικός του μηνύματος.
+     * @param sender Ο αποστολέας του μηνύματος.
+     * @param read Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί.
+     */
+    public InboxEntry(int messageId, String sender, boolean read) {
+        this.messageId = messageId;
+        this.sender = sender;
+        this.read = read;
+    }
+
+    public int getMessageId() {
+        return messageId;
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(messageId);
+        CompactIO.writeString(out, sender);
+        out.writeBoolean(read);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        messageId = in.readInt();
+        sender = CompactIO.readString(in);
+        read = in.readBoolean();
+    }
+
+    /**
+     * Επιστρέφει την εγγραφή στη μορφή που χρησιμοποιεί το API κειμένου, δηλαδή "id. from: αποστολέας" ακολουθούμενο
+     * από "*" αν το μήνυμα δεν έχει διαβαστεί.
+     * @return Η εγγραφή σε μορφή κειμένου.
+     */
+    @Override
+    public String toString() {
+        return messageId + ". from: " + sender + (read ? "" : "*");
+    }
+}
@@ -0,0 +1,96 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Το αποτέλεσμα μίας υπό συνθήκη λήψης της λίστας μηνυμάτων (inbox): η τρέχουσα έκδοση του γραμματοκιβωτίου και,
+ * μόνο αν αυτό έχει αλλάξει από την έκδοση που γνώριζε ο client, οι εγγραφές της λίστας μηνυμάτων. <br>
+ *
+ * Σειριοποιείται χειροποίητα (Externalizable). Οι εγγραφές γράφονται η μία μετά την άλλη χωρίς επιπλέον πληροφορίες
+ * αντικειμένου, ενώ η απάντηση "δεν άλλαξε" αποτελείται μόνο από την έκδοση και μία σήμανση.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class InboxSnapshot implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Η τρέχουσα έκδοση του γραμματοκιβωτίου. */
+    private long version;
+
+    /** Οι εγγραφές της λίστας μηνυμάτων ή null αν το γραμματοκιβώτιο δεν έχει αλλάξει. */
+    private InboxEntry[] entries;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public InboxSnapshot() {
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της InboxSnapshot που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param version Η τρέχουσα έκδοση του γραμματοκιβωτίου.
+     * @param entries Οι εγγραφές της λίστας μηνυμάτων ή null αν το γραμματοκιβώτιο δεν έχει αλλάξει.
+     */
+    public InboxSnapshot(long version, InboxEntry[] entries) {
+        this.version = version;
+        this.entries = entries;
+    }
+
+    /**
+     * Δημιουργεί αποτέλεσμα για γραμματοκιβώτιο που δεν έχει αλλάξει.
+     * @param version Η τρέχουσα (αμετάβλητη) έκδοση του γραμματοκιβωτίου.
+     * @return Το αποτέλεσμα "δεν άλλαξε".
+     */
+    public static InboxSnapshot notModified(long version) {
+        return new InboxSnapshot(version, null);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Υποδεικνύει αν το γραμματοκιβώτιο έχει αλλάξει από την έκδοση που γνώριζε ο client.
+     * @return true αν το αποτέλεσμα περιέχει τις (νέες) εγγραφές της λίστας μηνυμάτων.
+     */
+    public boolean isModified() {
+        return entries != null;
+    }
+
+    /**
+     * Επιστρέφει τις εγγραφές της λίστας μηνυμάτων.
+     * @return Οι εγγραφές ή null αν το γραμματοκιβώτιο δεν έχει αλλάξει.
+     */
+    public InboxEntry[] getEntries() {
+        return entries;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(version);
+        out.writeBoolean(entries != null);
+        if (entries != null){
+            out.writeInt(entries.length);
+            for (InboxEntry entry : entries) {
+                entry.writeExternal(out);
+            }
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        version = in.readLong();
+        if (in.readBoolean()){
+            entries = new InboxEntry[in.readInt()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = new InboxEntry();
+                entries[i].readExternal(in);
+            }
+        } else {
+            entries = null;
+        }
+    }
+}
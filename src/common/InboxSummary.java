@@ -0,0 +1,76 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Σύνοψη της κατάστασης του γραμματοκιβωτίου ενός χρήστη, χωρίς τα ίδια τα μηνύματα. <br>
+ *
+ * Επιτρέπει στον client να μάθει φθηνά αν υπάρχουν νέα μηνύματα, χωρίς να ζητήσει ολόκληρη τη λίστα μηνυμάτων.
+ * Σειριοποιείται χειροποίητα (Externalizable) ώστε να μεταφέρεται μέσω RMI με ελάχιστο μέγεθος και κόστος.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class InboxSummary implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Το συνολικό πλήθος των μηνυμάτων του γραμματοκιβωτίου. */
+    private int totalMessages;
+
+    /** Το πλήθος των μη διαβασμένων μηνυμάτων του γραμματοκιβωτίου. */
+    private int unreadMessages;
+
+    /** Ο μοναδικός κωδικός του νεότερου μηνύματος του γραμματοκιβωτίου ή -1 αν αυτό είναι κενό. */
+    private int newestMessageId;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public InboxSummary() {
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της InboxSummary που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param totalMessages Το συνολικό πλήθος των μηνυμάτων του γραμματοκιβωτίου.
+     * @param unreadMessages Το πλήθος των μη διαβασμένων μηνυμάτων του γραμματοκιβωτίου.
+     * @param newestMessageId Ο μοναδικός κωδικός του νεότερου μηνύματος ή -1 αν το γραμματοκιβώτιο είναι κενό.
+     */
+    public InboxSummary(int totalMessages, int unreadMessages, int newestMessageId) {
+        this.totalMessages = totalMessages;
+        this.unreadMessages = unreadMessages;
+        this.newestMessageId = newestMessageId;
+    }
+
+    public int getTotalMessages() {
+        return totalMessages;
+    }
+
+    public int getUnreadMessages() {
+        return unreadMessages;
+    }
+
+    public int getNewestMessageId() {
+        return newestMessageId;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(totalMessages);
+        out.writeInt(unreadMessages);
+        out.writeInt(newestMessageId);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        totalMessages = in.readInt();
+        unreadMessages = in.readInt();
+        newestMessageId = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Messages: %d, unread: %d, newest id: %d", totalMessages, unreadMessages, newestMessageId);
+    }
+}
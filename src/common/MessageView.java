@@ -0,0 +1,112 @@
+package common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Το αποτέλεσμα της ανάγνωσης ενός μηνύματος μέσω του τυποποιημένου (typed) API: ο κωδικός κατάστασης και, σε
+ * περίπτωση επιτυχίας, ο κωδικός, ο αποστολέας και το περιεχόμενο του μηνύματος. <br>
+ *
+ * Σειριοποιείται χειροποίητα (Externalizable) ώστε να μεταφέρεται μέσω RMI με ελάχιστο μέγεθος και κόστος.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class MessageView implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    /** Ο κωδικός κατάστασης της ανάγνωσης. */
+    private StatusCode status;
+
+    /** Ο μοναδικός κωδικός του μηνύματος. */
+    private int messageId;
+
+    /** Ο αποστολέας του μηνύματος ή null αν η ανάγνωση απέτυχε. */
+    private String sender;
+
+    /** Το κείμενο του μηνύματος ή null αν η ανάγνωση απέτυχε. */
+    private String body;
+
+    /**
+     * Κατασκευαστής χωρίς ορίσματα, απαραίτητος για την αποσειριοποίηση (Externalizable).
+     */
+    public MessageView() {
+    }
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της MessageView που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param status Ο κωδικός κατάστασης της ανάγνωσης.
+     * @param messageId Ο μοναδικός κωδικός του μηνύματος.
+     * @param sender Ο αποστολέας του μηνύματος ή null αν η ανάγνωση απέτυχε.
+     * @param body Το κείμενο του μηνύματος ή null αν η ανάγνωση απέτυχε.
+     */
+    public MessageView(StatusCode status, int messageId, String sender, String body) {
+        if (status == null){
+            throw new IllegalArgumentException("The status argument must not be null.");
+        }
+        this.status = status;
+        this.messageId = messageId;
+        this.sender = sender;
+        this.body = body;
+    }
+
+    /**
+     * Δημιουργεί αποτέλεσμα ανάγνωσης για μήνυμα που δεν υπάρχει.
+     * @param messageId Ο κωδικός του μηνύματος που αναζητήθηκε.
+     * @return Το αποτέλεσμα αποτυχημένης ανάγνωσης.
+     */
+    public static MessageView notFound(int messageId) {
+        return new MessageView(StatusCode.MESSAGE_DOES_NOT_EXIST, messageId, null, null);
+    }
+
+    public StatusCode getStatus() {
+        return status;
+    }
+
+    public int getMessageId() {
+        return messageId;
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(status.ordinal());
+        out.writeInt(messageId);
+        // Σε περίπτωση αποτυχίας δεν υπάρχει περιεχόμενο, οπότε δε γράφεται τίποτα άλλο.
+        if (status == StatusCode.OK){
+            CompactIO.writeString(out, sender);
+            CompactIO.writeString(out, body);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        status = StatusCode.fromOrdinal(in.readByte());
+        messageId = in.readInt();
+        if (status == StatusCode.OK){
+            sender = CompactIO.readString(in);
+            body = CompactIO.readString(in);
+        }
+    }
+
+    /**
+     * Επιστρέφει το αποτέλεσμα στη μορφή που χρησιμοποιεί το API κειμένου, δηλαδή "(αποστολέας) περιεχόμενο" ή
+     * "Message ID does not exist" αν το μήνυμα δεν υπάρχει.
+     * @return Το αποτέλεσμα σε μορφή κειμένου.
+     */
+    @Override
+    public String toString() {
+        if (status != StatusCode.OK){
+            return "Message ID does not exist";
+        }
+        return "(" + sender + ") " + body;
+    }
+}
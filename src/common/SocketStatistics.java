@@ -0,0 +1,114 @@
+package common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Στατιστικά των συνδέσεων (sockets) που δημιουργούνται από τα socket factories του RMI: πλήθος συνδέσεων, bytes που
+ * διαβάστηκαν/γράφτηκαν και πλήθος flushes ανά σύνδεση. <br>
+ *
+ * Τα flushes της ροής εξόδου δεν αντιστοιχούν ακριβώς σε αιτήματα: το RMI κάνει flush στο τέλος κάθε κλήσης
+ * (client) ή απάντησης (server), αλλά και στα μηνύματα ελέγχου του πρωτοκόλλου (π.χ. χειραψία, ping, DGC). Τα
+ * αιτήματα ανά λογαριασμό μετρώνται από τα CapacityStatistics. <br>
+ *
+ * Οι μετρητές ενημερώνονται χωρίς κλειδώματα (LongAdder), ώστε η συλλογή τους να μην επιβαρύνει την επικοινωνία.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class SocketStatistics {
+    /** Το πλήθος των συνδέσεων που άνοιξαν. */
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    /** Το πλήθος των συνδέσεων που έκλεισαν. */
+    private final LongAdder connectionsClosed = new LongAdder();
+
+    /** Το συνολικό πλήθος bytes που διαβάστηκαν από όλες τις συνδέσεις. */
+    private final LongAdder bytesRead = new LongAdder();
+
+    /** Το συνολικό πλήθος bytes που γράφτηκαν σε όλες τις συνδέσεις. */
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /** Το συνολικό πλήθος flushes σε όλες τις συνδέσεις. */
+    private final LongAdder flushes = new LongAdder();
+
+    /** Το μέγιστο πλήθος flushes μίας (κλεισμένης) σύνδεσης. */
+    private final AtomicLong maxFlushesPerConnection = new AtomicLong();
+
+    /** Καταγράφει το άνοιγμα μίας σύνδεσης. */
+    void connectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    /**
+     * Καταγράφει το κλείσιμο μίας σύνδεσης.
+     * @param connectionFlushes Το πλήθος των flushes της σύνδεσης.
+     */
+    void connectionClosed(long connectionFlushes) {
+        connectionsClosed.increment();
+        maxFlushesPerConnection.accumulateAndGet(connectionFlushes, Math::max);
+    }
+
+    /**
+     * Καταγράφει την ανάγνωση bytes από μία σύνδεση.
+     * @param count Το πλήθος των bytes.
+     */
+    void bytesRead(long count) {
+        bytesRead.add(count);
+    }
+
+    /**
+     * Καταγράφει την εγγραφή bytes σε μία σύνδεση.
+     * @param count Το πλήθος των bytes.
+     */
+    void bytesWritten(long count) {
+        bytesWritten.add(count);
+    }
+
+    /** Καταγράφει ένα flush της ροής εξόδου μίας σύνδεσης. */
+    void flushed() {
+        flushes.increment();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    public long getConnectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getMaxFlushesPerConnection() {
+        return maxFlushesPerConnection.get();
+    }
+
+    /**
+     * Επιστρέφει τον μέσο όρο flushes ανά σύνδεση που έχει ανοίξει.
+     * @return Ο μέσος όρος flushes ανά σύνδεση ή 0 αν δεν έχει ανοίξει καμία σύνδεση.
+     */
+    public double getAverageFlushesPerConnection() {
+        long opened = getConnectionsOpened();
+        return opened == 0 ? 0 : (double) getFlushes() / opened;
+    }
+
+    @Override
+    public String toString() {
+        long opened = getConnectionsOpened();
+        long closed = getConnectionsClosed();
+        return String.format("connections: %d opened, %d open, %d closed | bytes: %d read, %d written | " +
+                        "output flushes: %d total, %.1f avg/connection, %d max/connection",
+                opened, opened - closed, closed, getBytesRead(), getBytesWritten(),
+                getFlushes(), getAverageFlushesPerConnection(), getMaxFlushesPerConnection());
+    }
+}
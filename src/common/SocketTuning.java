@@ -0,0 +1,221 @@
+package common;
+
+import java.io.Serializable;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Οι ρυθμίσεις των TCP sockets που χρησιμοποιούνται για την επικοινωνία RMI μεταξύ client και server. <br>
+ *
+ * Κάθε ρύθμιση που δεν έχει οριστεί (τιμή null) παραμένει στην προκαθορισμένη τιμή του λειτουργικού συστήματος/JVM
+ * ή σε αυτή που ορίζει το RMI (TCP_NODELAY πάντα, SO_KEEPALIVE στον client, sun.rmi.transport.tcp.readTimeout στον
+ * server). Οι ρυθμίσεις που έχουν οριστεί διατηρούνται παρά τις αλλαγές του RMI (βλ. CountingSocket.applyTuning).
+ * Οι ρυθμίσεις είναι αμετάβλητες και σειριοποιήσιμες, καθώς ταξιδεύουν μαζί με το stub του εξυπηρετητή προς τον client
+ * (ως μέρος του TunableClientSocketFactory). <br>
+ *
+ * Οι διαθέσιμες ρυθμίσεις (με τα ονόματα που χρησιμοποιούνται στα ορίσματα) είναι:
+ * <pre>
+ *   - tcpNoDelay (true/false): Απενεργοποίηση του αλγορίθμου Nagle.
+ *   - sendBuffer (bytes): Μέγεθος του buffer αποστολής του socket (SO_SNDBUF).
+ *   - receiveBuffer (bytes): Μέγεθος του buffer λήψης του socket (SO_RCVBUF).
+ *   - keepAlive (true/false): Ενεργοποίηση του TCP keep-alive.
+ *   - idleTimeout (ms): Χρόνος αδράνειας μετά τον οποίο ο server κλείνει μία σύνδεση (SO_TIMEOUT στη μεριά του server).
+ *   - streamBuffer (bytes): Μέγεθος επιπλέον buffer στις ροές του socket (0 για καθόλου).
+ * </pre>
+ *
+ * @author Ioannis Baraklilis
+ */
+public final class SocketTuning implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Οι ρυθμίσεις χωρίς καμία αλλαγή από τις προκαθορισμένες τιμές. */
+    public static final SocketTuning DEFAULTS = new SocketTuning(null, null, null, null, null, null);
+
+    /** Απενεργοποίηση του αλγορίθμου Nagle (TCP_NODELAY). */
+    private final Boolean tcpNoDelay;
+
+    /** Μέγεθος του buffer αποστολής του socket (SO_SNDBUF) σε bytes. */
+    private final Integer sendBufferSize;
+
+    /** Μέγεθος του buffer λήψης του socket (SO_RCVBUF) σε bytes. */
+    private final Integer receiveBufferSize;
+
+    /** Ενεργοποίηση του TCP keep-alive (SO_KEEPALIVE). */
+    private final Boolean keepAlive;
+
+    /** Χρόνος αδράνειας (ms) μετά τον οποίο ο server κλείνει μία σύνδεση. */
+    private final Integer idleTimeoutMillis;
+
+    /** Μέγεθος του επιπλέον buffer των ροών του socket σε bytes (0 για καθόλου). */
+    private final Integer streamBufferSize;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της SocketTuning που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * Κάθε όρισμα μπορεί να είναι null, οπότε η αντίστοιχη ρύθμιση παραμένει στην προκαθορισμένη τιμή.
+     * @param tcpNoDelay Απενεργοποίηση του αλγορίθμου Nagle.
+     * @param sendBufferSize Μέγεθος του buffer αποστολής του socket σε bytes.
+     * @param receiveBufferSize Μέγεθος του buffer λήψης του socket σε bytes.
+     * @param keepAlive Ενεργοποίηση του TCP keep-alive.
+     * @param idleTimeoutMillis Χρόνος αδράνειας (ms) μετά τον οποίο ο server κλείνει μία σύνδεση.
+     * @param streamBufferSize Μέγεθος του επιπλέον buffer των ροών του socket σε bytes.
+     */
+    public SocketTuning(Boolean tcpNoDelay, Integer sendBufferSize, Integer receiveBufferSize, Boolean keepAlive,
+                        Integer idleTimeoutMillis, Integer streamBufferSize) {
+        this.tcpNoDelay = tcpNoDelay;
+        this.sendBufferSize = requireNonNegative(sendBufferSize, "sendBuffer");
+        this.receiveBufferSize = requireNonNegative(receiveBufferSize, "receiveBuffer");
+        this.keepAlive = keepAlive;
+        this.idleTimeoutMillis = requireNonNegative(idleTimeoutMillis, "idleTimeout");
+        this.streamBufferSize = requireNonNegative(streamBufferSize, "streamBuffer");
+    }
+
+    /**
+     * Δημιουργεί ρυθμίσεις από ζεύγη όνομα-τιμή (π.χ. από τα ορίσματα κλήσης του server). <br>
+     * Τα ονόματα που δεν αφορούν ρυθμίσεις socket αγνοούνται.
+     * @param options Τα ζεύγη όνομα-τιμή των ρυθμίσεων.
+     * @return Οι αντίστοιχες ρυθμίσεις.
+     * @throws IllegalArgumentException Σε περίπτωση που κάποια τιμή δεν είναι σε σωστή μορφή.
+     */
+    public static SocketTuning fromOptions(Map<String, String> options) {
+        return DEFAULTS.withOverrides(options);
+    }
+
+    /**
+     * Επιστρέφει νέες ρυθμίσεις όπου κάθε ρύθμιση που περιέχεται στο options αντικαθιστά την τρέχουσα τιμή της.
+     * @param options Τα ζεύγη όνομα-τιμή των ρυθμίσεων που αντικαθίστανται.
+     * @return Οι νέες ρυθμίσεις.
+     * @throws IllegalArgumentException Σε περίπτωση που κάποια τιμή δεν είναι σε σωστή μορφή.
+     */
+    public SocketTuning withOverrides(Map<String, String> options) {
+        return new SocketTuning(
+                parseBoolean(options.get("tcpNoDelay"), tcpNoDelay, "tcpNoDelay"),
+                parseInt(options.get("sendBuffer"), sendBufferSize, "sendBuffer"),
+                parseInt(options.get("receiveBuffer"), receiveBufferSize, "receiveBuffer"),
+                parseBoolean(options.get("keepAlive"), keepAlive, "keepAlive"),
+                parseInt(options.get("idleTimeout"), idleTimeoutMillis, "idleTimeout"),
+                parseInt(options.get("streamBuffer"), streamBufferSize, "streamBuffer"));
+    }
+
+    /**
+     * Εφαρμόζει τις ρυθμίσεις (εκτός του idleTimeout, το οποίο αφορά μόνο τον server) στο δοσμένο socket.
+     * @param socket Το socket στο οποίο εφαρμόζονται οι ρυθμίσεις.
+     * @throws SocketException Σε περίπτωση αποτυχίας εφαρμογής κάποιας ρύθμισης.
+     */
+    public void applyTo(Socket socket) throws SocketException {
+        if (tcpNoDelay != null){
+            socket.setTcpNoDelay(tcpNoDelay);
+        }
+        if (sendBufferSize != null && sendBufferSize > 0){
+            socket.setSendBufferSize(sendBufferSize);
+        }
+        if (receiveBufferSize != null && receiveBufferSize > 0){
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+        if (keepAlive != null){
+            socket.setKeepAlive(keepAlive);
+        }
+    }
+
+    public Boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public Boolean getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Integer getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public Integer getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Επιστρέφει το μέγεθος του επιπλέον buffer των ροών του socket.
+     * @return Το μέγεθος σε bytes ή 0 αν δεν έχει οριστεί επιπλέον buffer.
+     */
+    public int getStreamBufferSize() {
+        return streamBufferSize != null ? streamBufferSize : 0;
+    }
+
+    /**
+     * Ελέγχει ότι η τιμή (αν έχει οριστεί) δεν είναι αρνητική.
+     * @param value Η τιμή προς έλεγχο.
+     * @param name Το όνομα της ρύθμισης, για το μήνυμα λάθους.
+     * @return Η τιμή.
+     */
+    private static Integer requireNonNegative(Integer value, String name) {
+        if (value != null && value < 0){
+            throw new IllegalArgumentException("The " + name + " option must not be negative.");
+        }
+        return value;
+    }
+
+    /**
+     * Μετατρέπει την τιμή value σε boolean ή επιστρέφει την currentValue αν η value δεν έχει δοθεί.
+     * @param value Η τιμή σε μορφή κειμένου ή null.
+     * @param currentValue Η τρέχουσα τιμή της ρύθμισης.
+     * @param name Το όνομα της ρύθμισης, για το μήνυμα λάθους.
+     * @return Η τιμή της ρύθμισης.
+     */
+    private static Boolean parseBoolean(String value, Boolean currentValue, String name) {
+        if (value == null){
+            return currentValue;
+        } else if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")){
+            return Boolean.valueOf(value);
+        }
+        throw new IllegalArgumentException("Invalid " + name + " option: " + value + " (expected true or false).");
+    }
+
+    /**
+     * Μετατρέπει την τιμή value σε ακέραιο ή επιστρέφει την currentValue αν η value δεν έχει δοθεί.
+     * @param value Η τιμή σε μορφή κειμένου ή null.
+     * @param currentValue Η τρέχουσα τιμή της ρύθμισης.
+     * @param name Το όνομα της ρύθμισης, για το μήνυμα λάθους.
+     * @return Η τιμή της ρύθμισης.
+     */
+    private static Integer parseInt(String value, Integer currentValue, String name) {
+        if (value == null){
+            return currentValue;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e){
+            throw new IllegalArgumentException("Invalid " + name + " option: " + value + " (expected an integer).");
+        }
+    }
+
+    /**
+     * Δύο αντικείμενα ρυθμίσεων είναι ίσα αν όλες οι ρυθμίσεις τους είναι ίσες. <br>
+     * Η ισότητα είναι απαραίτητη ώστε το RMI να επαναχρησιμοποιεί τις ανοιχτές συνδέσεις για stubs με ίσα socket
+     * factories.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o){
+            return true;
+        } else if (!(o instanceof SocketTuning)){
+            return false;
+        }
+        SocketTuning other = (SocketTuning) o;
+        return Objects.equals(tcpNoDelay, other.tcpNoDelay) && Objects.equals(sendBufferSize, other.sendBufferSize)
+                && Objects.equals(receiveBufferSize, other.receiveBufferSize) && Objects.equals(keepAlive, other.keepAlive)
+                && Objects.equals(idleTimeoutMillis, other.idleTimeoutMillis)
+                && Objects.equals(streamBufferSize, other.streamBufferSize);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tcpNoDelay, sendBufferSize, receiveBufferSize, keepAlive, idleTimeoutMillis, streamBufferSize);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tcpNoDelay=%s, sendBuffer=%s, receiveBuffer=%s, keepAlive=%s, idleTimeout=%s, streamBuffer=%s",
+                tcpNoDelay, sendBufferSize, receiveBufferSize, keepAlive, idleTimeoutMillis, streamBufferSize);
+    }
+}
@@ -0,0 +1,64 @@
+package common;
+
+/**
+ * Ο κωδικός κατάστασης που επιστρέφεται από τις λειτουργίες του τυποποιημένου (typed) API που μεταβάλλουν δεδομένα,
+ * αντί για μηνύματα κειμένου. <br>
+ *
+ * Κάθε κωδικός συνοδεύεται από την περιγραφή που επιστρέφει το αντίστοιχο API κειμένου. Νέοι κωδικοί προστίθενται
+ * μόνο στο τέλος, αφού μεταφέρονται μέσω RMI με τον αύξοντα αριθμό τους (ordinal).
+ *
+ * @author Ioannis Baraklilis
+ */
+public enum StatusCode {
+    /** Η λειτουργία ολοκληρώθηκε επιτυχώς. */
+    OK("OK"),
+
+    /** Ο χρήστης στον οποίο αναφέρεται η λειτουργία δεν υπάρχει. */
+    USER_DOES_NOT_EXIST("User does not exist"),
+
+    /** Το μήνυμα στο οποίο αναφέρεται η λειτουργία δεν υπάρχει. */
+    MESSAGE_DOES_NOT_EXIST("Message does not exist"),
+
+    /** Το username δεν είναι σε σωστή μορφή (μόνο αλφαριθμητικά και ο ειδικός χαρακτήρας "_"). */
+    INVALID_USERNAME("Invalid Username"),
+
+    /** Υπάρχει ήδη χρήστης με το ίδιο username. */
+    USER_ALREADY_EXISTS("Sorry, the user already exists"),
+
+    /** Το όνομα της ομάδας δεν είναι σε σωστή μορφή (ίδιοι κανόνες με το username). */
+    INVALID_GROUP_NAME("Invalid Group Name"),
+
+    /** Υπάρχει ήδη ομάδα με το ίδιο όνομα. */
+    GROUP_ALREADY_EXISTS("Sorry, the group already exists"),
+
+    /** Η ομάδα στην οποία αναφέρεται η λειτουργία δεν υπάρχει. */
+    GROUP_DOES_NOT_EXIST("Group does not exist"),
+
+    /** Ο χρήστης δεν είναι ο δημιουργός ή μέλος της ομάδας. */
+    NOT_A_GROUP_MEMBER("Not a member of the group");
+
+    /** Η περιγραφή του κωδικού, όπως επιστρέφεται από το API κειμένου. */
+    private final String description;
+
+    StatusCode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Επιστρέφει τον κωδικό κατάστασης με τον δοσμένο αύξοντα αριθμό (ordinal).
+     * Χρησιμοποιείται κατά τη χειροποίητη αποσειριοποίηση αντικειμένων που περιέχουν κωδικό κατάστασης.
+     * @param ordinal Ο αύξων αριθμός του κωδικού.
+     * @return Ο αντίστοιχος κωδικός κατάστασης.
+     */
+    static StatusCode fromOrdinal(int ordinal) {
+        StatusCode[] values = values();
+        if (ordinal < 0 || ordinal >= values.length){
+            throw new IllegalArgumentException("Unknown status code ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,101 @@
+package common;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Το socket factory που χρησιμοποιεί ο client για να συνδεθεί στο απομακρυσμένο αντικείμενο του εξυπηρετητή. <br>
+ *
+ * Δημιουργείται από τον server με τις ρυθμίσεις του (SocketTuning) και μεταφέρεται στον client μαζί με το stub. Στη
+ * μεριά του client, κάθε ρύθμιση μπορεί να αντικατασταθεί μέσω system property με πρόθεμα "messaging."
+ * (π.χ. -Dmessaging.tcpNoDelay=false). <br>
+ *
+ * Τα στατιστικά των συνδέσεων του client καταγράφονται σε ένα κοινό, για όλη τη JVM, αντικείμενο SocketStatistics. <br>
+ *
+ * Το factory υλοποιεί equals/hashCode βάσει των ρυθμίσεων, ώστε το RMI να επαναχρησιμοποιεί τις ανοιχτές συνδέσεις
+ * για όλα τα stubs με τις ίδιες ρυθμίσεις.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class TunableClientSocketFactory implements RMIClientSocketFactory, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Το πρόθεμα των system properties που αντικαθιστούν τις ρυθμίσεις στη μεριά του client. */
+    public static final String PROPERTY_PREFIX = "messaging.";
+
+    /** Τα ονόματα των ρυθμίσεων που μπορούν να αντικατασταθούν στη μεριά του client. */
+    private static final String[] CLIENT_OPTIONS = {"tcpNoDelay", "sendBuffer", "receiveBuffer", "keepAlive", "streamBuffer"};
+
+    /** Τα στατιστικά των συνδέσεων που δημιουργούνται από αυτή τη JVM. */
+    private static final SocketStatistics CLIENT_STATISTICS = new SocketStatistics();
+
+    /** Οι ρυθμίσεις των sockets, όπως ορίστηκαν από τον server. */
+    private final SocketTuning tuning;
+
+    /** Οι ρυθμίσεις μετά την εφαρμογή των system properties του client (υπολογίζονται κατά την πρώτη χρήση). */
+    private transient SocketTuning effectiveTuning;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της TunableClientSocketFactory.
+     * @param tuning Οι ρυθμίσεις των sockets.
+     */
+    public TunableClientSocketFactory(SocketTuning tuning) {
+        if (tuning == null){
+            throw new IllegalArgumentException("The tuning argument must not be null.");
+        }
+        this.tuning = tuning;
+    }
+
+    /**
+     * Επιστρέφει τα στατιστικά των συνδέσεων που έχουν δημιουργηθεί από αυτή τη JVM μέσω του factory.
+     * @return Τα στατιστικά των συνδέσεων του client.
+     */
+    public static SocketStatistics getStatistics() {
+        return CLIENT_STATISTICS;
+    }
+
+    /**
+     * Επιστρέφει τις ρυθμίσεις του server με εφαρμοσμένες τις αντικαταστάσεις από τα system properties του client.
+     * @return Οι ρυθμίσεις που εφαρμόζονται στα sockets.
+     */
+    private SocketTuning getEffectiveTuning() {
+        if (effectiveTuning == null){
+            Map<String, String> overrides = new HashMap<>();
+            for (String option : CLIENT_OPTIONS) {
+                String value = System.getProperty(PROPERTY_PREFIX + option);
+                if (value != null){
+                    overrides.put(option, value);
+                }
+            }
+            effectiveTuning = overrides.isEmpty() ? tuning : tuning.withOverrides(overrides);
+        }
+        return effectiveTuning;
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        SocketTuning socketTuning = getEffectiveTuning();
+        CountingSocket socket = new CountingSocket(CLIENT_STATISTICS, socketTuning.getStreamBufferSize());
+
+        // Οι ρυθμίσεις εφαρμόζονται πριν τη σύνδεση, ώστε να ισχύουν (π.χ. το μέγεθος του receive buffer) και για τη
+        // χειραψία TCP.
+        socket.applyTuning(socketTuning, false);
+        socket.connect(new InetSocketAddress(host, port));
+        return socket;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o != null && o.getClass() == getClass() && tuning.equals(((TunableClientSocketFactory) o).tuning);
+    }
+
+    @Override
+    public int hashCode() {
+        return tuning.hashCode();
+    }
+}
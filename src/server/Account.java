@@ -1,8 +1,23 @@
 package server;
 
+import common.BulkOperationResult;
+import common.InboxDelta;
+import common.InboxEntry;
+import common.InboxSnapshot;
+import common.InboxSummary;
+import common.MessageView;
+import common.StatusCode;
+
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Μοντελοποιεί την οντότητα ενός λογαριασμού χρήστη που αποθηκεύεται στον εξυπηρετητή.
@@ -10,15 +25,108 @@ import java.util.List;
  * @author Ioannis Baraklilis
  */
 public class Account implements Serializable {
+    /** Το αρχικό μέγεθος του ημερολογίου μεταβολών του γραμματοκιβωτίου (δημιουργείται με την πρώτη μεταβολή). */
+    private static final int INITIAL_CHANGE_LOG_CAPACITY = 16;
+
+    /** Το μέγιστο πλήθος μεταβολών (διαγραφών/αναγνώσεων) που διατηρούνται για τον συγχρονισμό διαφορών. */
+    private static final int MAX_CHANGE_LOG_CAPACITY = 256;
+
+    /**
+     * Η μορφή ενός έγκυρου ονόματος χρήστη (μόνο αλφαριθμητικά και ο ειδικός χαρακτήρας "_"). Μεταγλωττίζεται μία φορά,
+     * αντί για κάθε έλεγχο (όπως θα γινόταν με τη String.matches).
+     */
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("(\\p{IsAlphabetic}|[0-9]|_)+");
+
     /** Το όνομα χρήστη. Αποτελείται μόνο από αλφαριθμητικά και τον ειδικό χαρακτήρα “_”. */
     private String username;
 
     /** Ένας μοναδικός αριθμός αναγνώρισης του χρήστη (δημιουργείται από τον server και είναι προσωπικός/κρυφός). */
     private int authToken;
 
-    /** Το γραμματοκιβώτιο του χρήστη, το οποίο είναι μία λίστα από Messages. */
+    /**
+     * Το γραμματοκιβώτιο του χρήστη, το οποίο είναι μία λίστα από Messages. <br>
+     * Είναι null όσο το γραμματοκιβώτιο είναι εκκενωμένο στον δίσκο (βλ. MailboxStore) και δεν περιέχει τα εκκρεμή
+     * μηνύματα (βλ. pendingMessages), οπότε κάθε μέθοδος που το χρησιμοποιεί καλεί πρώτα την loadMailbox.
+     */
     private List<Message> messageBox;
 
+    /** Το πλήθος των μηνυμάτων του γραμματοκιβωτίου. Ενημερώνεται σταδιακά σε κάθε προσθήκη/διαγραφή μηνύματος. */
+    private int messageCount;
+
+    /** Το πλήθος των μη διαβασμένων μηνυμάτων. Ενημερώνεται σταδιακά σε κάθε προσθήκη/ανάγνωση/διαγραφή μηνύματος. */
+    private int unreadCount;
+
+    /** Ο μοναδικός κωδικός του νεότερου μηνύματος του γραμματοκιβωτίου ή -1 αν αυτό είναι κενό. */
+    private int newestMessageId = -1;
+
+    /**
+     * Η έκδοση του γραμματοκιβωτίου. Αυξάνεται σε κάθε μεταβολή του (προσθήκη, ανάγνωση ή διαγραφή μηνύματος), ώστε
+     * ένας client να μπορεί να ελέγξει φθηνά αν το γραμματοκιβώτιο άλλαξε από την τελευταία φορά που το είδε.
+     */
+    private long mailboxVersion;
+
+    /**
+     * Οι εκδόσεις του γραμματοκιβωτίου μετά από καθεμία από τις πιο πρόσφατες διαγραφές/αναγνώσεις μηνυμάτων
+     * (κυκλικός πίνακας). Μαζί με το changeIds αποτελούν το ημερολόγιο μεταβολών, από το οποίο υπολογίζονται οι
+     * διαφορές για τον συγχρονισμό του client (βλ. syncInbox). Οι προσθήκες δεν καταγράφονται, αφού τα νέα μηνύματα
+     * εντοπίζονται από τον κωδικό τους.
+     */
+    private long[] changeVersions;
+
+    /**
+     * Οι κωδικοί των μηνυμάτων των αντίστοιχων μεταβολών του changeVersions: ο κωδικός για διαγραφή ή το
+     * συμπλήρωμά του (~id, αρνητικός αριθμός) για ανάγνωση.
+     */
+    private int[] changeIds;
+
+    /** Η θέση της παλαιότερης μεταβολής στο ημερολόγιο. */
+    private int changeLogStart;
+
+    /** Το πλήθος των μεταβολών στο ημερολόγιο. */
+    private int changeLogSize;
+
+    /**
+     * Η έκδοση της νεότερης μεταβολής που έχει απορριφθεί από το (γεμάτο) ημερολόγιο. Ένας client με παλαιότερη
+     * έκδοση χρειάζεται πλήρη συγχρονισμό.
+     */
+    private long changeLogFloor;
+
+    /** Η εκτίμηση της μνήμης (bytes) που καταλαμβάνουν τα μηνύματα του γραμματοκιβωτίου όταν αυτό είναι στη μνήμη. */
+    private long mailboxBytes;
+
+    /** Ο διαχειριστής της κλιμακωτής αποθήκευσης ή null αν το γραμματοκιβώτιο παραμένει πάντα στη μνήμη. */
+    private transient MailboxStore mailboxStore;
+
+    /** Υποδεικνύει αν ο λογαριασμός είναι καταχωρημένος στη σάρωση εκκένωσης του mailboxStore. */
+    private boolean tracked;
+
+    /** Υποδεικνύει αν το γραμματοκιβώτιο χρησιμοποιήθηκε από την τελευταία σάρωση εκκένωσης. */
+    private boolean referenced;
+
+    /** Η έκδοση του γραμματοκιβωτίου που είναι αποθηκευμένη στο αρχείο του δίσκου ή -1 αν δεν υπάρχει αρχείο. */
+    private long spilledVersion = -1;
+
+    /**
+     * Το κλείδωμα που προστατεύει το γραμματοκιβώτιο και τους μετρητές του (κρίσιμο τμήμα του λογαριασμού). <br>
+     * Μετράει τον χρόνο αναμονής και κατοχής του, ώστε να εντοπίζεται ο ανταγωνισμός ανά λογαριασμό (βλ. LockProfiler).
+     */
+    private final ProfiledLock mailboxLock = new ProfiledLock(LockProfiler.MAILBOX_LOCKS);
+
+    /**
+     * Τα μηνύματα που έχουν παραδοθεί στον λογαριασμό χωρίς κλείδωμα (πολλοί παραγωγοί, ουρά χωρίς κλειδώματα) και
+     * δεν έχουν ακόμα μεταφερθεί στο γραμματοκιβώτιο. Μεταφέρονται, με τη σειρά άφιξής τους, από την loadMailbox.
+     */
+    private final ConcurrentLinkedQueue<SharedMessageBody> pendingMessages = new ConcurrentLinkedQueue<>();
+
+    /** Το πλήθος των αιτημάτων του λογαριασμού στο τρέχον χρονικό παράθυρο (βλ. CapacityStatistics). */
+    private final AtomicLong windowRequests = new AtomicLong();
+
+    /** Το πλήθος των αιτημάτων του λογαριασμού στο προηγούμενο χρονικό παράθυρο. */
+    private volatile long previousWindowRequests;
+
+    /** Ο αύξων αριθμός του χρονικού παραθύρου στο οποίο αντιστοιχεί το windowRequests. */
+    private volatile long requestWindow = CapacityStatistics.currentRequestWindow();
+
     /**
      * Ο προκαθορισμένος κατασκευαστής της Account που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
      * @param username Το όνομα χρήστη. Αποτελείται μόνο από αλφαριθμητικά και τον ειδικό χαρακτήρα “_”.
@@ -30,19 +138,25 @@ public class Account implements Serializable {
         // Έλεγχος για το αν το όνομα δόθηκε ως null και αν δεν αποτελείται μόνο από αλφαριθμητικά και τον ειδικό χαρακτήρα "_".
         if (username == null){
             throw new IllegalArgumentException("The username argument must not be null.");
-        } else if (!username.matches("(\\p{IsAlphabetic}|[0-9]|_)+")){
+        } else if (!isValidUsername(username)){
             throw new IllegalArgumentException("A username must be a string that consists of characters that are " +
                     "alphanumeric or _.");
         }
         this.username = username;
 
         this.authToken = authToken;
+        CapacityStatistics.accountCreated();
 
         if (messageBox != null) {
             this.messageBox = messageBox;
         } else {
             this.messageBox = new ArrayList<>();
         }
+
+        // Αρχικοποίηση των μετρητών σύμφωνα με το αρχικό περιεχόμενο του γραμματοκιβωτίου.
+        for (Message m : this.messageBox) {
+            onMessageAdded(m);
+        }
     }
 
     /**
@@ -55,7 +169,7 @@ public class Account implements Serializable {
         // Έλεγχος για το αν το όνομα δόθηκε ως null και αν δεν αποτελείται μόνο από αλφαριθμητικά και τον ειδικό χαρακτήρα "_".
         if (username == null){
             throw new IllegalArgumentException("The username argument must not be null.");
-        } else if (!username.matches("(\\p{IsAlphabetic}|[0-9]|_)+")){
+        } else if (!isValidUsername(username)){
             throw new IllegalArgumentException("A username must be a string that consists of characters that are " +
                     "alphanumeric or _.");
         }
@@ -63,6 +177,17 @@ public class Account implements Serializable {
 
         this.authToken = authToken;
         this.messageBox = new ArrayList<>();
+        CapacityStatistics.accountCreated();
+    }
+
+    /**
+     * Ελέγχει αν το username είναι έγκυρο όνομα χρήστη, δηλαδή αποτελείται μόνο από αλφαριθμητικά και τον ειδικό
+     * χαρακτήρα "_". Είναι ασφαλής για ταυτόχρονη χρήση από πολλά νήματα.
+     * @param username Το όνομα χρήστη.
+     * @return true αν το όνομα χρήστη είναι έγκυρο.
+     */
+    static boolean isValidUsername(String username) {
+        return username != null && USERNAME_PATTERN.matcher(username).matches();
     }
 
     public String getUsername() {
@@ -73,19 +198,490 @@ public class Account implements Serializable {
         return authToken;
     }
 
+    /**
+     * Αλλάζει τον κωδικό αυθεντικοποίησης ενός λογαριασμού που δεν έχει ακόμα καταχωρηθεί (π.χ. όταν ο υποψήφιος
+     * κωδικός της μαζικής δημιουργίας λογαριασμών αποδειχθεί δεσμευμένος).
+     * @param authToken Ο νέος κωδικός αυθεντικοποίησης.
+     */
+    void reassignAuthToken(int authToken) {
+        this.authToken = authToken;
+    }
+
+    /**
+     * Αναιρεί την καταγραφή, στα στατιστικά χωρητικότητας, ενός λογαριασμού που δημιουργήθηκε αλλά δεν καταχωρήθηκε
+     * (π.χ. επειδή το username ήδη υπάρχει). Ο λογαριασμός δε χρησιμοποιείται μετά την κλήση.
+     */
+    void discard() {
+        mailboxLock.lock();
+        try {
+            for (int i = messageBox.size() - 1; i >= 0; i--) {
+                Message m = messageBox.get(i);
+                CapacityStatistics.messageRemoved(m, i, MailboxStore.estimateSize(m));
+            }
+            messageBox.clear();
+            // Ώστε ο λογαριασμός να μην εμφανίζεται στους λογαριασμούς με τα περισσότερα μηνύματα.
+            messageCount = 0;
+            mailboxBytes = 0;
+            CapacityStatistics.accountDiscarded();
+        } finally {
+            mailboxLock.unlock();
+        }
+    }
+
+    ProfiledLock getMailboxLock() {
+        return mailboxLock;
+    }
+
+    /**
+     * Επιστρέφει το πλήθος των μηνυμάτων του γραμματοκιβωτίου. Διαβάζεται χωρίς κλείδωμα, οπότε προορίζεται μόνο για
+     * στατιστικά (βλ. CapacityStatistics).
+     * @return Το πλήθος των μηνυμάτων.
+     */
+    long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Επιστρέφει την εκτίμηση του μεγέθους του γραμματοκιβωτίου. Διαβάζεται χωρίς κλείδωμα, οπότε προορίζεται μόνο για
+     * στατιστικά (βλ. CapacityStatistics).
+     * @return Η εκτίμηση του μεγέθους (bytes).
+     */
+    long getMailboxBytes() {
+        return mailboxBytes;
+    }
+
+    /**
+     * Καταγράφει ένα αίτημα του λογαριασμού για τον υπολογισμό του ρυθμού αιτημάτων (βλ. CapacityStatistics).
+     * Δε χρησιμοποιεί το κλείδωμα του γραμματοκιβωτίου: σε περίπτωση ταυτόχρονης αλλαγής χρονικού παραθύρου, μπορεί
+     * να χαθούν ελάχιστα αιτήματα από τη μέτρηση.
+     */
+    void recordRequest() {
+        long window = CapacityStatistics.currentRequestWindow();
+        if (window != requestWindow){
+            // Νέο παράθυρο: τα αιτήματα του τρέχοντος γίνονται αιτήματα του προηγούμενου, αν αυτό ήταν το αμέσως προηγούμενο.
+            long completed = windowRequests.getAndSet(0);
+            previousWindowRequests = window == requestWindow + 1 ? completed : 0;
+            requestWindow = window;
+        }
+        windowRequests.incrementAndGet();
+        CapacityStatistics.requestRecorded(this, getRecentRequests());
+    }
+
+    /**
+     * Επιστρέφει το πλήθος των πρόσφατων αιτημάτων του λογαριασμού, δηλαδή του τρέχοντος και του προηγούμενου
+     * χρονικού παραθύρου.
+     * @return Το πλήθος των πρόσφατων αιτημάτων.
+     */
+    long getRecentRequests() {
+        long elapsed = CapacityStatistics.currentRequestWindow() - requestWindow;
+        if (elapsed == 0){
+            return previousWindowRequests + windowRequests.get();
+        }
+        // Ο λογαριασμός δεν έχει κάνει αίτημα στο τρέχον παράθυρο.
+        return elapsed == 1 ? windowRequests.get() : 0;
+    }
+
+    /**
+     * Ορίζει τον διαχειριστή της κλιμακωτής αποθήκευσης, ώστε το γραμματοκιβώτιο να μπορεί να εκκενώνεται στον δίσκο
+     * όταν δε χρησιμοποιείται.
+     * @param mailboxStore Ο διαχειριστής της κλιμακωτής αποθήκευσης.
+     */
+    void setMailboxStore(MailboxStore mailboxStore) {
+        mailboxLock.lock();
+        try {
+            this.mailboxStore = mailboxStore;
+            if (mailboxBytes > 0){
+                mailboxStore.addResidentBytes(mailboxBytes);
+                tracked = true;
+                mailboxStore.track(this);
+            }
+        } finally {
+            mailboxLock.unlock();
+        }
+    }
+
+    /**
+     * Εξασφαλίζει ότι το γραμματοκιβώτιο βρίσκεται στη μνήμη και είναι πλήρες: το φορτώνει από τον δίσκο αν έχει
+     * εκκενωθεί, το σημειώνει ως πρόσφατα χρησιμοποιημένο και μεταφέρει σε αυτό τα μηνύματα που εκκρεμούν
+     * (βλ. pendingMessages). Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού.
+     */
+    private void loadMailbox(){
+        if (mailboxStore != null){
+            referenced = true;
+            if (messageBox != null){
+                mailboxStore.recordHit();
+            } else {
+                long start = System.nanoTime();
+                try {
+                    messageBox = mailboxStore.readMailbox(username);
+                } catch (IOException e){
+                    throw new IllegalStateException("Could not load the mailbox of " + username + ": " + e.getMessage(), e);
+                }
+                mailboxStore.recordFault(System.nanoTime() - start);
+                CapacityStatistics.mailboxLoaded(messageBox);
+
+                mailboxStore.addResidentBytes(mailboxBytes);
+                tracked = true;
+                mailboxStore.track(this);
+            }
+        }
+
+        // Τα μηνύματα που εκκρεμούν λαμβάνουν κωδικό μόνο τώρα, εντός του κλειδώματος, οπότε οι κωδικοί του
+        // γραμματοκιβωτίου παραμένουν αύξοντες και η σειρά άφιξης κάθε αποστολέα διατηρείται.
+        SharedMessageBody content;
+        while ((content = pendingMessages.poll()) != null) {
+            Message newMessage = new Message(false, content, this.username);
+            messageBox.add(newMessage);
+            onMessageAdded(newMessage);
+        }
+    }
+
+    /**
+     * Μεταφέρει στο γραμματοκιβώτιο τα μηνύματα που εκκρεμούν, ώστε οι μετρητές και η έκδοσή του να είναι ενημερωμένα.
+     * Χρησιμοποιείται από τις λειτουργίες που δε χρειάζονται τη λίστα μηνυμάτων, οπότε το γραμματοκιβώτιο φορτώνεται
+     * από τον δίσκο μόνο αν υπάρχουν εκκρεμή μηνύματα. Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού.
+     */
+    private void drainPendingMessages(){
+        if (!pendingMessages.isEmpty()){
+            loadMailbox();
+        }
+    }
+
+    /**
+     * Απελευθερώνει το κλείδωμα του γραμματοκιβωτίου και, αν χρειάζεται, εκκενώνει ψυχρά γραμματοκιβώτια στον δίσκο.
+     * Η εκκένωση γίνεται μετά την (εξωτερική) απελευθέρωση, ώστε η εγγραφή στον δίσκο να μην καθυστερεί τον λογαριασμό.
+     */
+    private void unlockMailbox(){
+        mailboxLock.unlock();
+        if (mailboxStore != null && !mailboxLock.isHeldByCurrentThread()){
+            mailboxStore.evictIfOverBudget();
+        }
+    }
+
+    /**
+     * Καλείται από τη σάρωση του MailboxStore και εκκενώνει το γραμματοκιβώτιο στον δίσκο, εκτός αν αυτό
+     * χρησιμοποιείται αυτή τη στιγμή ή χρησιμοποιήθηκε από την προηγούμενη σάρωση (οπότε χάνει μόνο τη σήμανσή του). <br>
+     * Αν το αρχείο του δίσκου περιέχει ήδη την τρέχουσα έκδοση του γραμματοκιβωτίου, δε γράφεται ξανά.
+     * @return true αν ο λογαριασμός πρέπει να παραμείνει στη σάρωση (δηλαδή το γραμματοκιβώτιο παραμένει στη μνήμη).
+     */
+    boolean tryEvictMailbox(){
+        // Δε γίνεται αναμονή για το κλείδωμα: ένα γραμματοκιβώτιο που χρησιμοποιείται δεν είναι ψυχρό. Η απόπειρα δεν
+        // καταγράφεται στα στατιστικά ανταγωνισμού, αφού δεν αφορά αίτημα client.
+        if (mailboxLock.isHeldByCurrentThread() || !mailboxLock.tryLockUnprofiled()){
+            return true;
+        }
+        try {
+            if (referenced){
+                referenced = false;
+                return true;
+            }
+            if (messageBox == null || messageBox.isEmpty()){ // Δεν υπάρχει κάτι για εκκένωση.
+                tracked = false;
+                return false;
+            }
+
+            boolean write = spilledVersion != mailboxVersion;
+            if (write){
+                try {
+                    mailboxStore.writeMailbox(username, messageBox);
+                } catch (IOException e){
+                    mailboxStore.recordFailedEviction();
+                    return true;
+                }
+                spilledVersion = mailboxVersion;
+            }
+
+            CapacityStatistics.mailboxEvicted(messageBox);
+            messageBox = null;
+            mailboxStore.addResidentBytes(-mailboxBytes);
+            mailboxStore.recordEviction(write);
+            tracked = false;
+            return false;
+        } finally {
+            mailboxLock.unlock();
+        }
+    }
+
+    /**
+     * Ενημερώνει τους μετρητές του γραμματοκιβωτίου μετά την προσθήκη του μηνύματος m.
+     * Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού.
+     * @param m Το μήνυμα που προστέθηκε.
+     */
+    private void onMessageAdded(Message m){
+        mailboxVersion++;
+        messageCount++;
+        if (!m.isRead()){
+            unreadCount++;
+        }
+        newestMessageId = m.getId();
+
+        long size = MailboxStore.estimateSize(m);
+        mailboxBytes += size;
+        CapacityStatistics.messageAdded(this, m, messageCount, size, mailboxBytes);
+        if (mailboxStore != null){
+            mailboxStore.addResidentBytes(size);
+            if (!tracked){
+                tracked = true;
+                mailboxStore.track(this);
+            }
+        }
+    }
+
+    /**
+     * Ενημερώνει τους μετρητές του γραμματοκιβωτίου μετά τη διαγραφή του μηνύματος m. <br>
+     * Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού. Ο κωδικός του νεότερου μηνύματος δεν ενημερώνεται
+     * εδώ αλλά μέσω της updateNewestMessageId, αφού ολοκληρωθούν όλες οι διαγραφές.
+     * @param m Το μήνυμα που διαγράφηκε.
+     */
+    private void onMessageRemoved(Message m){
+        mailboxVersion++;
+        messageCount--;
+        if (!m.isRead()){
+            unreadCount--;
+        }
+
+        logChange(m.getId());
+
+        long size = MailboxStore.estimateSize(m);
+        mailboxBytes -= size;
+        CapacityStatistics.messageRemoved(m, messageCount, size);
+        if (mailboxStore != null){
+            mailboxStore.addResidentBytes(-size);
+        }
+    }
+
+    /**
+     * Σημειώνει το μήνυμα m ως διαβασμένο (αν δεν ήταν ήδη), ενημερώνοντας τους μετρητές και την έκδοση του
+     * γραμματοκιβωτίου. Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού.
+     * @param m Το μήνυμα που διαβάστηκε.
+     * @return true αν το μήνυμα δεν ήταν ήδη διαβασμένο.
+     */
+    private boolean markAsRead(Message m){
+        if (m.isRead()){
+            return false;
+        }
+        m.setRead(true);
+        unreadCount--;
+        mailboxVersion++;
+        logChange(~m.getId());
+        return true;
+    }
+
+    /**
+     * Καταγράφει στο ημερολόγιο μεταβολών μία διαγραφή ή ανάγνωση μηνύματος, με την τρέχουσα έκδοση του
+     * γραμματοκιβωτίου. Αν το ημερολόγιο έχει φτάσει το μέγιστο μέγεθός του, απορρίπτεται η παλαιότερη μεταβολή. <br>
+     * Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού, μετά την αύξηση της έκδοσης.
+     * @param encodedId Ο κωδικός του μηνύματος για διαγραφή ή το συμπλήρωμά του (~id) για ανάγνωση.
+     */
+    private void logChange(int encodedId){
+        if (changeVersions == null){
+            changeVersions = new long[INITIAL_CHANGE_LOG_CAPACITY];
+            changeIds = new int[INITIAL_CHANGE_LOG_CAPACITY];
+        } else if (changeLogSize == changeVersions.length && changeVersions.length < MAX_CHANGE_LOG_CAPACITY){
+            // Διπλασιασμός του ημερολογίου, με τις μεταβολές σε σειρά από την αρχή του νέου πίνακα.
+            int capacity = Math.min(2 * changeVersions.length, MAX_CHANGE_LOG_CAPACITY);
+            long[] versions = new long[capacity];
+            int[] ids = new int[capacity];
+            for (int i = 0; i < changeLogSize; i++) {
+                int slot = (changeLogStart + i) % changeVersions.length;
+                versions[i] = changeVersions[slot];
+                ids[i] = changeIds[slot];
+            }
+            changeVersions = versions;
+            changeIds = ids;
+            changeLogStart = 0;
+        }
+
+        int slot;
+        if (changeLogSize == changeVersions.length){ // Γεμάτο ημερολόγιο: αντικατάσταση της παλαιότερης μεταβολής.
+            slot = changeLogStart;
+            changeLogFloor = changeVersions[slot];
+            changeLogStart = (changeLogStart + 1) % changeVersions.length;
+        } else {
+            slot = (changeLogStart + changeLogSize) % changeVersions.length;
+            changeLogSize++;
+        }
+        changeVersions[slot] = mailboxVersion;
+        changeIds[slot] = encodedId;
+    }
+
+    /**
+     * Ενημερώνει τον κωδικό του νεότερου μηνύματος σύμφωνα με το τρέχον περιεχόμενο του γραμματοκιβωτίου.
+     * Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού, μετά από διαγραφή μηνυμάτων.
+     */
+    private void updateNewestMessageId(){
+        // Τα μηνύματα προστίθενται στο τέλος της λίστας, οπότε το νεότερο είναι πάντα το τελευταίο.
+        newestMessageId = messageBox.isEmpty() ? -1 : messageBox.get(messageBox.size() - 1).getId();
+    }
+
+    /**
+     * Διαγράφει, με ένα μόνο πέρασμα της λίστας, όλα τα μηνύματα του γραμματοκιβωτίου που ικανοποιούν το κριτήριο
+     * shouldRemove, ενημερώνοντας κατάλληλα τους μετρητές. <br>
+     * Τα μηνύματα που παραμένουν μετακινούνται προς την αρχή της λίστας διατηρώντας τη σειρά τους και στο τέλος
+     * αφαιρείται με μία κίνηση το πλεονάζον τμήμα, ώστε το συνολικό κόστος να είναι γραμμικό. <br>
+     * Πρέπει να καλείται εντός του κρίσιμου τμήματος του λογαριασμού.
+     * @param shouldRemove Το κριτήριο διαγραφής μηνύματος.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     */
+    private int removeMessagesIf(Predicate<Message> shouldRemove){
+        int kept = 0;
+        int end = messageBox.size();
+
+        for (int i = 0; i < end; i++) {
+            Message m = messageBox.get(i);
+            if (shouldRemove.test(m)){
+                onMessageRemoved(m);
+            } else {
+                messageBox.set(kept++, m);
+            }
+        }
+
+        // Αφαίρεση του τμήματος της λίστας που περισσεύει μετά τη μετακίνηση των μηνυμάτων που παραμένουν.
+        messageBox.subList(kept, end).clear();
+        updateNewestMessageId();
+
+        return end - kept;
+    }
+
+    /**
+     * Επιστρέφει σύνοψη της κατάστασης του γραμματοκιβωτίου (πλήθος μηνυμάτων, μη διαβασμένων και κωδικό νεότερου
+     * μηνύματος) σε σταθερό χρόνο, χωρίς να διατρέχει τη λίστα μηνυμάτων.
+     * @return Η σύνοψη του γραμματοκιβωτίου.
+     */
+    public InboxSummary getInboxSummary() {
+        mailboxLock.lock();
+        try {
+            drainPendingMessages();
+            return new InboxSummary(messageCount, unreadCount, newestMessageId);
+        } finally {
+            unlockMailbox();
+        }
+    }
+
     /**
      * Επιστρέφει λίστα με αντίγραφα των μηνυμάτων που υπάρχουν στο γραμματοκιβώτιο του χρήστη.
      * @return Λίστα μηνυμάτων του γραμματοκιβωτίου.
      */
-    public synchronized Message[] getMessageBoxContents() {
-        // Αρχικοποιώ το "δοχείο" με τα μηνύματα.
-        Message[] messageCopies = new Message[messageBox.size()];
+    public Message[] getMessageBoxContents() {
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            // Αρχικοποιώ το "δοχείο" με τα μηνύματα.
+            Message[] messageCopies = new Message[messageBox.size()];
 
-        for (int i = 0, end = messageBox.size(); i < end; i++){
-            messageCopies[i] = new Message(messageBox.get(i));
+            for (int i = 0, end = messageBox.size(); i < end; i++){
+                messageCopies[i] = new Message(messageBox.get(i));
+            }
+
+            return messageCopies;
+        } finally {
+            unlockMailbox();
+        }
+    }
+
+    /**
+     * Επιστρέφει τις εγγραφές της λίστας μηνυμάτων (κωδικός, αποστολέας, κατάσταση ανάγνωσης) του γραμματοκιβωτίου,
+     * χωρίς να αντιγράφει τα ίδια τα μηνύματα.
+     * @return Οι εγγραφές της λίστας μηνυμάτων, με σειρά άφιξης.
+     */
+    public InboxEntry[] getInboxEntries() {
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            InboxEntry[] entries = new InboxEntry[messageBox.size()];
+
+            for (int i = 0, end = messageBox.size(); i < end; i++){
+                Message m = messageBox.get(i);
+                entries[i] = new InboxEntry(m.getId(), m.getSender(), m.isRead());
+            }
+
+            return entries;
+        } finally {
+            unlockMailbox();
+        }
+    }
+
+    /**
+     * Επιστρέφει τις εγγραφές της λίστας μηνυμάτων μόνο αν το γραμματοκιβώτιο έχει αλλάξει από την έκδοση
+     * lastSeenVersion. Σε διαφορετική περίπτωση, επιστρέφεται απλά η τρέχουσα έκδοση, χωρίς να διατρέχεται η λίστα.
+     * @param lastSeenVersion Η έκδοση του γραμματοκιβωτίου που γνωρίζει ο client.
+     * @return Η τρέχουσα έκδοση και, αν το γραμματοκιβώτιο έχει αλλάξει, οι εγγραφές της λίστας μηνυμάτων.
+     */
+    public InboxSnapshot getInboxEntriesIfModified(long lastSeenVersion) {
+        mailboxLock.lock();
+        try {
+            drainPendingMessages();
+            if (lastSeenVersion == mailboxVersion){
+                return InboxSnapshot.notModified(mailboxVersion);
+            }
+            return new InboxSnapshot(mailboxVersion, getInboxEntries());
+        } finally {
+            unlockMailbox();
         }
+    }
+
+    /**
+     * Επιστρέφει τις μεταβολές του γραμματοκιβωτίου από την έκδοση sinceVersion που γνωρίζει ο client: τα μηνύματα με
+     * κωδικό μεγαλύτερο από highWaterMark και τους κωδικούς (έως και highWaterMark) των μηνυμάτων που διαγράφηκαν ή
+     * διαβάστηκαν. <br>
+     * Αν ο client δεν έχει έγκυρη έκδοση ή οι μεταβολές από την έκδοσή του δεν είναι όλες καταγεγραμμένες, επιστρέφεται
+     * ολόκληρη η λίστα μηνυμάτων. Το γραμματοκιβώτιο φορτώνεται από τον δίσκο μόνο αν υπάρχουν νέα μηνύματα.
+     * @param sinceVersion Η έκδοση του γραμματοκιβωτίου που γνωρίζει ο client ή -1 αν δεν υπάρχει.
+     * @param highWaterMark Ο μεγαλύτερος κωδικός μηνύματος που έχει λάβει ο client ή -1 αν δεν υπάρχει.
+     * @return Οι μεταβολές του γραμματοκιβωτίου και η τρέχουσα έκδοσή του.
+     */
+    public InboxDelta syncInbox(long sinceVersion, int highWaterMark) {
+        mailboxLock.lock();
+        try {
+            drainPendingMessages();
+            if (sinceVersion == mailboxVersion){
+                return InboxDelta.notModified(mailboxVersion);
+            }
+            if (sinceVersion < 0 || sinceVersion > mailboxVersion || sinceVersion < changeLogFloor){
+                return InboxDelta.fullResync(mailboxVersion, getInboxEntries());
+            }
 
-        return messageCopies;
+            // Συλλογή των διαγραφών/αναγνώσεων μετά την έκδοση του client, μόνο για μηνύματα που αυτός γνωρίζει
+            // (τα νεότερα αποστέλλονται ολόκληρα, με την τρέχουσα κατάστασή τους).
+            int[] deletedIds = new int[changeLogSize];
+            int[] readIds = new int[changeLogSize];
+            int deleted = 0;
+            int read = 0;
+            for (int i = 0; i < changeLogSize; i++) {
+                int slot = (changeLogStart + i) % changeVersions.length;
+                if (changeVersions[slot] <= sinceVersion){
+                    continue;
+                }
+                int id = changeIds[slot];
+                if (id >= 0){
+                    if (id <= highWaterMark){
+                        deletedIds[deleted++] = id;
+                    }
+                } else if (~id <= highWaterMark){
+                    readIds[read++] = ~id;
+                }
+            }
+
+            // Τα μηνύματα προστίθενται με αύξοντα κωδικό, οπότε τα νέα βρίσκονται στο τέλος της λίστας.
+            InboxEntry[] newEntries = null;
+            if (newestMessageId > highWaterMark){
+                loadMailbox();
+                int first = messageBox.size();
+                while (first > 0 && messageBox.get(first - 1).getId() > highWaterMark) {
+                    first--;
+                }
+                newEntries = new InboxEntry[messageBox.size() - first];
+                for (int i = first, end = messageBox.size(); i < end; i++) {
+                    Message m = messageBox.get(i);
+                    newEntries[i - first] = new InboxEntry(m.getId(), m.getSender(), m.isRead());
+                }
+            }
+
+            return new InboxDelta(mailboxVersion, newEntries, Arrays.copyOf(deletedIds, deleted),
+                    Arrays.copyOf(readIds, read));
+        } finally {
+            unlockMailbox();
+        }
     }
 
     /**
@@ -94,61 +690,209 @@ public class Account implements Serializable {
      * @param senderUsername Ο αποστολέας του μηνύματος.
      * @param messageBody Το περιεχόμενο του μηνύματος.
      */
-    public synchronized void addMessageInMessageBox(String senderUsername, String messageBody){
-        messageBox.add(new Message(false, senderUsername, this.username, messageBody));
+    public void addMessageInMessageBox(String senderUsername, String messageBody){
+        addMessageInMessageBox(new SharedMessageBody(senderUsername, messageBody));
+    }
+
+    /**
+     * Προσθέτει στο γραμματοκιβώτιο του χρήστη νέο μήνυμα που αναφέρεται στο ήδη υπάρχον (κοινό) περιεχόμενο content.
+     * Χρησιμοποιείται κατά την αποστολή του ίδιου μηνύματος σε πολλούς παραλήπτες, ώστε το κείμενο να μην αντιγράφεται. <br>
+     *
+     * Η προσθήκη γίνεται χωρίς αναμονή για το κλείδωμα του γραμματοκιβωτίου: το μήνυμα μπαίνει στην ουρά των
+     * εκκρεμών μηνυμάτων και, αν το κλείδωμα είναι ελεύθερο, ο αποστολέας το μεταφέρει αμέσως στο γραμματοκιβώτιο.
+     * Διαφορετικά, τη μεταφορά κάνει η επόμενη λειτουργία του γραμματοκιβωτίου (ή επόμενος αποστολέας), οπότε
+     * ταυτόχρονοι αποστολείς προς τον ίδιο παραλήπτη δεν περιμένουν ποτέ ο ένας τον άλλον.
+     * @param content Το κοινό περιεχόμενο του μηνύματος (αποστολέας και κείμενο).
+     */
+    public void addMessageInMessageBox(SharedMessageBody content){
+        pendingMessages.offer(content);
+
+        if (mailboxLock.tryLock()){
+            try {
+                loadMailbox();
+            } finally {
+                unlockMailbox();
+            }
+        }
     }
 
     /**
      * Επιστρέφει τον αποστολέα και το περιεχόμενο ενός μηνύματος (του χρήστη) με id messageId.
      * Έπειτα το μήνυμα (αν υπάρχει) σημειώνεται ως διαβασμένο.
-     * Αν το μήνυμα δεν υπάρχει, επιστρέφεται "Message ID does not exist".
+     * Αν το μήνυμα δεν υπάρχει, επιστρέφεται αποτέλεσμα με κωδικό κατάστασης MESSAGE_DOES_NOT_EXIST.
      *
      * @param messageId Το id του μηνύματος που αναζητείται.
-     * @return Ο αποστολέας και το περιεχόμενο του μηνύματος αν αυτό βρεθεί ή, σε διαφορετική περίπτωση, το αντίστοιχο μήνυμα λάθους.
+     * @return Ο αποστολέας και το περιεχόμενο του μηνύματος αν αυτό βρεθεί ή, σε διαφορετική περίπτωση, το αντίστοιχο
+     *         αποτέλεσμα αποτυχίας.
      */
-    public synchronized String readMessage(int messageId){
-        Message targetMessage = null;
+    public MessageView readMessage(int messageId){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            Message targetMessage = null;
 
-        // Αναζήτηση για μήνυμα με id messageId.
-        for (Message m : messageBox) {
-            if (m.getId() == messageId) {
-                targetMessage = m;
-                break; // Το μήνυμα βρέθηκε, τέλος αναζήτησης.
+            // Αναζήτηση για μήνυμα με id messageId.
+            for (Message m : messageBox) {
+                if (m.getId() == messageId) {
+                    targetMessage = m;
+                    break; // Το μήνυμα βρέθηκε, τέλος αναζήτησης.
+                }
             }
-        }
 
-        // Αν η αναζήτηση ολοκληρώθηκε ανεπιτυχώς το targetMessage θα έχει την αρχικοποιημένη τιμή null.
-        if (targetMessage == null) {
-            return "Message ID does not exist";
-        } else { // Το μήνυμα βρέθηκε. Αποθηκεύω το περιεχόμενο επιστροφής και το σημειώνω ώς διαβασμένο.
-            targetMessage.setRead(true);
-            return String.format("(%s) %s", targetMessage.getSender(), targetMessage.getBody());
+            // Αν η αναζήτηση ολοκληρώθηκε ανεπιτυχώς το targetMessage θα έχει την αρχικοποιημένη τιμή null.
+            if (targetMessage == null) {
+                return MessageView.notFound(messageId);
+            } else { // Το μήνυμα βρέθηκε. Αποθηκεύω το περιεχόμενο επιστροφής και το σημειώνω ώς διαβασμένο.
+                markAsRead(targetMessage);
+                return new MessageView(StatusCode.OK, messageId, targetMessage.getSender(), targetMessage.getBody());
+            }
+        } finally {
+            unlockMailbox();
         }
     }
 
     /**
      * Διαγράφει το μήνυμα του χρήστη με id messageId, άν υπάρχει.
-     * Αν το μήνυμα δεν υπάρχει, επιστρέφεται "Message ID does not exist".
      *
      * @param messageId Το id του μηνύματος που αναζητείται.
      * @return H κατάσταση επιτυχίας της διαγραφής. <br>
-     *         "OK" για επιτυχία και "Message does not exist" σε περίπτωση αποτυχίας εύρεσης μηνύματος.
+     *         OK για επιτυχία και MESSAGE_DOES_NOT_EXIST σε περίπτωση αποτυχίας εύρεσης μηνύματος.
+     */
+    public StatusCode deleteMessage(int messageId){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            // Αναζήτηση για μήνυμα με id messageId.
+            for (int i = 0, end = messageBox.size(); i < end; i++) {
+                if (messageBox.get(i).getId() == messageId) {
+                    onMessageRemoved(messageBox.remove(i));
+                    updateNewestMessageId();
+
+                    // Το μήνυμα βρέθηκε και διαγράφηκε επιτυχώς, τέλος μεθόδου και επιστροφή επιτυχούς αποτελέσματος.
+                    return StatusCode.OK;
+                }
+            }
+
+            // Σε περίπτωση που δεν έγινε τερματισμός μεθόδου νωρίτερα και φτάσουμε σε αυτό το σημείο, σημαίνει ότι το μήνυμα
+            // δε βρέθηκε.
+            return StatusCode.MESSAGE_DOES_NOT_EXIST;
+        } finally {
+            unlockMailbox();
+        }
+    }
+
+    /**
+     * Διαγράφει, με μία μόνο είσοδο στο κρίσιμο τμήμα και ένα πέρασμα της λίστας, τα μηνύματα του χρήστη με κωδικούς
+     * που περιέχονται στο messageIds.
+     * @param messageIds Οι κωδικοί των μηνυμάτων προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν και οι κωδικοί που δε βρέθηκαν.
      */
-    public synchronized String deleteMessage(int messageId){
-        Message targetMessage = null;
+    public BulkOperationResult deleteMessages(int[] messageIds){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            // Οι κωδικοί που δεν έχουν βρεθεί ακόμα. Κάθε κωδικός που βρίσκεται αφαιρείται από το σύνολο.
+            HashSet<Integer> pendingIds = new HashSet<>();
+            for (int id : messageIds) {
+                pendingIds.add(id);
+            }
 
-        // Αναζήτηση για μήνυμα με id messageId.
-        for (int i = 0, end = messageBox.size(); i < end; i++) {
-            if (messageBox.get(i).getId() == messageId) {
-                messageBox.remove(i);
+            int deleted = removeMessagesIf(m -> pendingIds.remove(m.getId()));
 
-                // Το μήνυμα βρέθηκε και διαγράφηκε επιτυχώς, τέλος μεθόδου και επιστροφή επιτυχούς αποτελέσματος.
-                return "OK";
+            // Ό,τι απέμεινε στο σύνολο αντιστοιχεί σε κωδικούς που δε βρέθηκαν.
+            int[] missingIds = new int[pendingIds.size()];
+            int i = 0;
+            for (int id : pendingIds) {
+                missingIds[i++] = id;
             }
+            Arrays.sort(missingIds);
+
+            return new BulkOperationResult(deleted, missingIds);
+        } finally {
+            unlockMailbox();
         }
+    }
+
+    /**
+     * Διαγράφει, με μία μόνο είσοδο στο κρίσιμο τμήμα και ένα πέρασμα της λίστας, όλα τα μηνύματα του χρήστη με κωδικό
+     * στο κλειστό διάστημα [fromId, toId].
+     * @param fromId Ο μικρότερος κωδικός μηνύματος προς διαγραφή.
+     * @param toId Ο μεγαλύτερος κωδικός μηνύματος προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     */
+    public BulkOperationResult deleteMessageRange(int fromId, int toId){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            return new BulkOperationResult(removeMessagesIf(m -> m.getId() >= fromId && m.getId() <= toId), null);
+        } finally {
+            unlockMailbox();
+        }
+    }
+
+    /**
+     * Διαγράφει, με μία μόνο είσοδο στο κρίσιμο τμήμα και ένα πέρασμα της λίστας, όλα τα διαβασμένα μηνύματα του χρήστη.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     */
+    public BulkOperationResult deleteReadMessages(){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            return new BulkOperationResult(removeMessagesIf(Message::isRead), null);
+        } finally {
+            unlockMailbox();
+        }
+    }
 
-        // Σε περίπτωση που δεν έγινε τερματισμός μεθόδου νωρίτερα και φτάσουμε σε αυτό το σημείο, σημαίνει ότι το μήνυμα
-        // δε βρέθηκε.
-       return "Message does not exist";
+    /**
+     * Σημειώνει όλα τα μηνύματα του χρήστη ως διαβασμένα.
+     * @return Το πλήθος των μηνυμάτων που σημειώθηκαν ως διαβασμένα (δηλαδή δεν ήταν ήδη).
+     */
+    public BulkOperationResult markAllAsRead(){
+        mailboxLock.lock();
+        try {
+            drainPendingMessages();
+            int marked = 0;
+
+            // Αν δεν υπάρχουν μη διαβασμένα μηνύματα, δε χρειάζεται να διατρέξω (ούτε να φορτώσω) τη λίστα.
+            if (unreadCount > 0){
+                loadMailbox();
+                for (Message m : messageBox) {
+                    if (markAsRead(m)){
+                        marked++;
+                    }
+                }
+            }
+
+            return new BulkOperationResult(marked, null);
+        } finally {
+            unlockMailbox();
+        }
+    }
+
+    /**
+     * Επιστρέφει τον αποστολέα και το περιεχόμενο των count παλαιότερων μη διαβασμένων μηνυμάτων του χρήστη και τα
+     * σημειώνει ως διαβασμένα, με μία μόνο είσοδο στο κρίσιμο τμήμα.
+     * @param count Το μέγιστο πλήθος μηνυμάτων προς ανάγνωση.
+     * @return Τα μηνύματα που διαβάστηκαν (κωδικός, αποστολέας και περιεχόμενο), από το παλαιότερο στο νεότερο.
+     */
+    public MessageView[] readOldestUnread(int count){
+        mailboxLock.lock();
+        try {
+            loadMailbox();
+            ArrayList<MessageView> results = new ArrayList<>();
+
+            // Τα μηνύματα είναι αποθηκευμένα με σειρά άφιξης, οπότε τα πρώτα μη διαβασμένα είναι και τα παλαιότερα.
+            for (int i = 0, end = messageBox.size(); i < end && results.size() < count && unreadCount > 0; i++) {
+                Message m = messageBox.get(i);
+                if (markAsRead(m)){
+                    results.add(new MessageView(StatusCode.OK, m.getId(), m.getSender(), m.getBody()));
+                }
+            }
+
+            return results.toArray(new MessageView[0]);
+        } finally {
+            unlockMailbox();
+        }
     }
 }
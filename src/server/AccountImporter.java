@@ -0,0 +1,176 @@
+package server;
+
+import common.StatusCode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Η εισαγωγή λογαριασμών (και προαιρετικά των υπαρχόντων μηνυμάτων τους) από αρχείο, κατά την εκκίνηση του server
+ * και πριν αυτός δεχθεί αιτήματα (ρύθμιση --importFile). <br>
+ *
+ * Το αρχείο εισόδου είναι κείμενο UTF-8 με μία εγγραφή ανά γραμμή και πεδία χωρισμένα με tab:
+ * <pre>
+ *   A    username                      Ένας λογαριασμός.
+ *   M    recipient    sender    body   Ένα (μη διαβασμένο) μήνυμα στο γραμματοκιβώτιο του λογαριασμού recipient.
+ * </pre>
+ * Ο παραλήπτης ενός μηνύματος πρέπει να είναι λογαριασμός του ίδιου αρχείου, ενώ τα μηνύματα προστίθενται με τη
+ * σειρά τους στο αρχείο. Στο κείμενο ενός μηνύματος οι ακολουθίες \t, \n και \\ αντιστοιχούν σε tab, αλλαγή γραμμής
+ * και \. Κενές γραμμές και γραμμές που ξεκινούν με # αγνοούνται. <br>
+ *
+ * Το αρχείο διαβάζεται με ένα πέρασμα και όλοι οι λογαριασμοί δημιουργούνται με μία κλήση της
+ * ClientQueriesRemote.createAccounts. Το αρχείο εξόδου περιέχει μία γραμμή username-tab-token για κάθε λογαριασμό
+ * (ή το μήνυμα λάθους της createAccount στη θέση του token αν ο λογαριασμός δε δημιουργήθηκε). Επειδή τα tokens
+ * είναι μυστικά, σε συστήματα POSIX το αρχείο εξόδου είναι αναγνώσιμο μόνο από τον ιδιοκτήτη (600).
+ *
+ * @author Ioannis Baraklilis
+ */
+class AccountImporter {
+    /** Τα δικαιώματα του αρχείου εξόδου: ανάγνωση και εγγραφή μόνο από τον ιδιοκτήτη. */
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+    /** Το αποτέλεσμα μίας εισαγωγής. */
+    static class Result {
+        /** Το πλήθος των λογαριασμών που δημιουργήθηκαν. */
+        private final int createdAccounts;
+
+        /** Το πλήθος των λογαριασμών που δε δημιουργήθηκαν (μη έγκυρο ή ήδη υπάρχον username). */
+        private final int failedAccounts;
+
+        /** Το πλήθος των μηνυμάτων που εισήχθησαν. */
+        private final int importedMessages;
+
+        Result(int createdAccounts, int failedAccounts, int importedMessages) {
+            this.createdAccounts = createdAccounts;
+            this.failedAccounts = failedAccounts;
+            this.importedMessages = importedMessages;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d accounts created, %d failed, %d messages imported",
+                    createdAccounts, failedAccounts, importedMessages);
+        }
+    }
+
+    /**
+     * Εισάγει τους λογαριασμούς και τα μηνύματα του αρχείου input και γράφει τα tokens των νέων λογαριασμών στο
+     * αρχείο output.
+     * @param clientQueries Το αντικείμενο στο οποίο αποθηκεύονται οι λογαριασμοί.
+     * @param input Το αρχείο εισόδου.
+     * @param output Το αρχείο εξόδου.
+     * @return Το αποτέλεσμα της εισαγωγής.
+     * @throws IOException Σε περίπτωση σφάλματος ανάγνωσης ή εγγραφής.
+     * @throws IllegalArgumentException Σε περίπτωση που κάποια γραμμή του αρχείου εισόδου δεν είναι σε σωστή μορφή. Σε
+     *                                  αυτή την περίπτωση δε δημιουργείται κανένας λογαριασμός.
+     */
+    static Result importFile(ClientQueriesRemote clientQueries, Path input, Path output) throws IOException {
+        List<String> usernames = new ArrayList<>();
+        Map<String, List<SharedMessageBody>> mailboxes = new HashMap<>();
+
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")){
+                    continue;
+                }
+
+                String[] fields = line.split("\t", 4);
+                if (fields[0].equals("A") && fields.length == 2){
+                    usernames.add(fields[1]);
+                    // Το γραμματοκιβώτιο δημιουργείται εδώ, ώστε τα μηνύματα να αναγνωρίζουν τους παραλήπτες.
+                    mailboxes.putIfAbsent(fields[1], new ArrayList<>());
+                } else if (fields[0].equals("M") && fields.length == 4){
+                    List<SharedMessageBody> mailbox = mailboxes.get(fields[1]);
+                    if (mailbox == null){
+                        throw new IllegalArgumentException("Invalid line " + lineNumber + " of " + input +
+                                ": the recipient " + fields[1] + " is not an account of the file.");
+                    }
+                    mailbox.add(new SharedMessageBody(fields[2], unescape(fields[3])));
+                } else {
+                    throw new IllegalArgumentException("Invalid line " + lineNumber + " of " + input +
+                            " (expected A<tab>username or M<tab>recipient<tab>sender<tab>body).");
+                }
+            }
+        }
+
+        String[] accounts = usernames.toArray(new String[0]);
+        ClientQueriesRemote.AccountCreation[] results = clientQueries.createAccounts(accounts, mailboxes);
+
+        // Το αρχείο εξόδου αποκτά δικαιώματα μόνο για τον ιδιοκτήτη πριν γραφτεί σε αυτό κάποιο token.
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")){
+            if (!Files.exists(output)){
+                Files.createFile(output, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            }
+            Files.setPosixFilePermissions(output, OWNER_ONLY);
+        }
+
+        // Καταμέτρηση των αποτελεσμάτων και εγγραφή των tokens.
+        int created = 0;
+        int importedMessages = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < accounts.length; i++) {
+                out.write(accounts[i]);
+                out.write('\t');
+                out.write(results[i].toString());
+                out.newLine();
+
+                if (results[i].getStatus() == StatusCode.OK){
+                    created++;
+                    importedMessages += mailboxes.get(accounts[i]).size();
+                }
+            }
+        }
+
+        return new Result(created, accounts.length - created, importedMessages);
+    }
+
+    /**
+     * Μετατρέπει τις ακολουθίες \t, \n και \\ του κειμένου ενός μηνύματος στους αντίστοιχους χαρακτήρες.
+     * @param s Το κείμενο όπως εμφανίζεται στο αρχείο.
+     * @return Το κείμενο του μηνύματος.
+     */
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0){
+            return s;
+        }
+
+        StringBuilder result = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()){
+                char next = s.charAt(++i);
+                switch (next){
+                    case 't':
+                        result.append('\t');
+                        break;
+                    case 'n':
+                        result.append('\n');
+                        break;
+                    default: // Περιλαμβάνει το \\ (και αφήνει αυτούσιες τις άγνωστες ακολουθίες).
+                        if (next != '\\'){
+                            result.append(c);
+                        }
+                        result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,331 @@
+package server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Στατιστικά χωρητικότητας και μνήμης του εξυπηρετητή, για τον υπολογισμό του απαιτούμενου μεγέθους heap: πλήθος
+ * λογαριασμών και μηνυμάτων, εκτιμώμενη μνήμη γραμματοκιβωτίων και περιεχομένων μηνυμάτων, κατανομή των
+ * γραμματοκιβωτίων ανά μέγεθος και οι λογαριασμοί με τα περισσότερα μηνύματα, το μεγαλύτερο γραμματοκιβώτιο και τον
+ * μεγαλύτερο ρυθμό αιτημάτων. <br>
+ *
+ * Όλα τα στατιστικά ενημερώνονται σταδιακά από τις μεταβολές των Account και ClientQueriesRemote, χωρίς κλειδώματα
+ * (LongAdder) ή με γρήγορο έλεγχο χωρίς κλείδωμα (HeavyHitters), οπότε η αναφορά δε διατρέχει ποτέ τα γραμματοκιβώτια. <br>
+ *
+ * Οι εκτιμήσεις μνήμης βασίζονται σε σταθερό κόστος ανά αντικείμενο και 2 bytes ανά χαρακτήρα, οπότε είναι
+ * ενδεικτικές (συντηρητικές). Η αναφορά είναι διαθέσιμη μέσω JMX (CapacityStatisticsMBean) και μέσω της εντολής
+ * "capacity" της κονσόλας του server.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class CapacityStatistics implements CapacityStatisticsMBean {
+    /** Τα κάτω όρια (πλήθος μηνυμάτων) των κατηγοριών μεγέθους γραμματοκιβωτίων. */
+    private static final int[] SIZE_BUCKET_BOUNDS = {0, 1, 10, 100, 1000, 10000};
+
+    /** Τα ονόματα των κατηγοριών μεγέθους γραμματοκιβωτίων. */
+    private static final String[] SIZE_BUCKET_NAMES = {"0", "1-9", "10-99", "100-999", "1000-9999", "10000+"};
+
+    /** Η διάρκεια (ms) των χρονικών παραθύρων στα οποία μετράται ο ρυθμός αιτημάτων κάθε λογαριασμού. */
+    private static final long REQUEST_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Το πλήθος των λογαριασμών που εμφανίζονται σε κάθε λίστα "κορυφαίων". */
+    private static final int TOP_ACCOUNTS = 10;
+
+    /** Το πλήθος των υποψηφίων που παρακολουθούνται για κάθε λίστα "κορυφαίων" (βλ. HeavyHitters). */
+    private static final int TOP_CANDIDATES = 4 * TOP_ACCOUNTS;
+
+    /** Η χρονική στιγμή (ms) εκκίνησης των μετρήσεων. */
+    private static final long STARTED_AT_MILLIS = System.currentTimeMillis();
+
+    /** Το πλήθος των λογαριασμών. */
+    private static final LongAdder ACCOUNTS = new LongAdder();
+
+    /** Το συνολικό πλήθος μηνυμάτων. */
+    private static final LongAdder MESSAGES = new LongAdder();
+
+    /** Το πλήθος των μηνυμάτων των γραμματοκιβωτίων που βρίσκονται στη μνήμη. */
+    private static final LongAdder HEAP_MESSAGES = new LongAdder();
+
+    /** Η εκτίμηση του μεγέθους όλων των γραμματοκιβωτίων (bytes). */
+    private static final LongAdder MAILBOX_BYTES = new LongAdder();
+
+    /** Το πλήθος των (διαφορετικών) περιεχομένων μηνυμάτων στη μνήμη. */
+    private static final LongAdder HEAP_BODIES = new LongAdder();
+
+    /** Η εκτίμηση της μνήμης των (διαφορετικών) περιεχομένων μηνυμάτων στη μνήμη (bytes). */
+    private static final LongAdder BODY_HEAP_BYTES = new LongAdder();
+
+    /** Το πλήθος των γραμματοκιβωτίων σε κάθε κατηγορία μεγέθους. */
+    private static final LongAdder[] MAILBOX_SIZES = new LongAdder[SIZE_BUCKET_BOUNDS.length];
+
+    static {
+        for (int i = 0; i < MAILBOX_SIZES.length; i++) {
+            MAILBOX_SIZES[i] = new LongAdder();
+        }
+    }
+
+    /** Οι λογαριασμοί με τα περισσότερα μηνύματα. */
+    private static final HeavyHitters<Account> BY_MESSAGES = new HeavyHitters<>(Account::getMessageCount, TOP_CANDIDATES);
+
+    /** Οι λογαριασμοί με το μεγαλύτερο γραμματοκιβώτιο. */
+    private static final HeavyHitters<Account> BY_BYTES = new HeavyHitters<>(Account::getMailboxBytes, TOP_CANDIDATES);
+
+    /** Οι λογαριασμοί με τα περισσότερα πρόσφατα αιτήματα. */
+    private static final HeavyHitters<Account> BY_REQUESTS = new HeavyHitters<>(Account::getRecentRequests, TOP_CANDIDATES);
+
+    /** Καταγράφει τη δημιουργία ενός (κενού) λογαριασμού. */
+    static void accountCreated() {
+        ACCOUNTS.increment();
+        MAILBOX_SIZES[0].increment();
+    }
+
+    /** Αναιρεί την καταγραφή ενός (κενού) λογαριασμού που δημιουργήθηκε αλλά δεν καταχωρήθηκε. */
+    static void accountDiscarded() {
+        ACCOUNTS.decrement();
+        MAILBOX_SIZES[0].decrement();
+    }
+
+    /**
+     * Καταγράφει την προσθήκη του μηνύματος m στο γραμματοκιβώτιο του λογαριασμού account.
+     * @param account Ο λογαριασμός.
+     * @param m Το μήνυμα που προστέθηκε.
+     * @param messageCount Το πλήθος των μηνυμάτων του γραμματοκιβωτίου μετά την προσθήκη.
+     * @param size Η εκτίμηση του μεγέθους του μηνύματος (bytes).
+     * @param mailboxBytes Η εκτίμηση του μεγέθους του γραμματοκιβωτίου μετά την προσθήκη (bytes).
+     */
+    static void messageAdded(Account account, Message m, int messageCount, long size, long mailboxBytes) {
+        MESSAGES.increment();
+        HEAP_MESSAGES.increment();
+        MAILBOX_BYTES.add(size);
+        retain(m.getContent());
+        moveMailbox(messageCount - 1, messageCount);
+
+        BY_MESSAGES.offer(account, messageCount);
+        BY_BYTES.offer(account, mailboxBytes);
+    }
+
+    /**
+     * Καταγράφει τη διαγραφή του μηνύματος m από ένα γραμματοκιβώτιο.
+     * @param m Το μήνυμα που διαγράφηκε.
+     * @param messageCount Το πλήθος των μηνυμάτων του γραμματοκιβωτίου μετά τη διαγραφή.
+     * @param size Η εκτίμηση του μεγέθους του μηνύματος (bytes).
+     */
+    static void messageRemoved(Message m, int messageCount, long size) {
+        MESSAGES.decrement();
+        HEAP_MESSAGES.decrement();
+        MAILBOX_BYTES.add(-size);
+        release(m.getContent());
+        moveMailbox(messageCount + 1, messageCount);
+    }
+
+    /**
+     * Καταγράφει την εκκένωση των μηνυμάτων ενός γραμματοκιβωτίου από τη μνήμη (βλ. MailboxStore).
+     * @param messageBox Τα μηνύματα του γραμματοκιβωτίου.
+     */
+    static void mailboxEvicted(List<Message> messageBox) {
+        HEAP_MESSAGES.add(-messageBox.size());
+        for (Message m : messageBox) {
+            release(m.getContent());
+        }
+    }
+
+    /**
+     * Καταγράφει τη φόρτωση των μηνυμάτων ενός γραμματοκιβωτίου στη μνήμη (βλ. MailboxStore).
+     * @param messageBox Τα μηνύματα του γραμματοκιβωτίου.
+     */
+    static void mailboxLoaded(List<Message> messageBox) {
+        HEAP_MESSAGES.add(messageBox.size());
+        for (Message m : messageBox) {
+            retain(m.getContent());
+        }
+    }
+
+    /**
+     * Καταγράφει ένα αίτημα του λογαριασμού account.
+     * @param account Ο λογαριασμός.
+     * @param recentRequests Το πλήθος των πρόσφατων αιτημάτων του λογαριασμού (βλ. Account.getRecentRequests).
+     */
+    static void requestRecorded(Account account, long recentRequests) {
+        BY_REQUESTS.offer(account, recentRequests);
+    }
+
+    /**
+     * Επιστρέφει τον αύξοντα αριθμό του τρέχοντος χρονικού παραθύρου μέτρησης αιτημάτων.
+     * @return Ο αύξων αριθμός του παραθύρου.
+     */
+    static long currentRequestWindow() {
+        return System.currentTimeMillis() / REQUEST_WINDOW_MILLIS;
+    }
+
+    /**
+     * Επιστρέφει το πλήθος των μηνυμάτων των γραμματοκιβωτίων που βρίσκονται στη μνήμη.
+     * @return Το πλήθος των μηνυμάτων στη μνήμη.
+     */
+    static long heapMessages() {
+        return HEAP_MESSAGES.sum();
+    }
+
+    /**
+     * Επιστρέφει το πλήθος των (διαφορετικών) περιεχομένων μηνυμάτων στη μνήμη.
+     * @return Το πλήθος των περιεχομένων στη μνήμη.
+     */
+    static long heapBodies() {
+        return HEAP_BODIES.sum();
+    }
+
+    /**
+     * Καταγράφει ένα ακόμα μήνυμα στη μνήμη που αναφέρεται στο περιεχόμενο content.
+     * @param content Το περιεχόμενο του μηνύματος.
+     */
+    private static void retain(SharedMessageBody content) {
+        if (content.retain()){
+            HEAP_BODIES.increment();
+            BODY_HEAP_BYTES.add(content.estimateHeapBytes());
+        }
+    }
+
+    /**
+     * Καταγράφει ότι ένα μήνυμα στη μνήμη δεν αναφέρεται πλέον στο περιεχόμενο content.
+     * @param content Το περιεχόμενο του μηνύματος.
+     */
+    private static void release(SharedMessageBody content) {
+        if (content.release()){
+            HEAP_BODIES.decrement();
+            BODY_HEAP_BYTES.add(-content.estimateHeapBytes());
+        }
+    }
+
+    /**
+     * Μετακινεί ένα γραμματοκιβώτιο στην κατάλληλη κατηγορία μεγέθους, αν αυτή άλλαξε.
+     * @param from Το προηγούμενο πλήθος μηνυμάτων του γραμματοκιβωτίου.
+     * @param to Το νέο πλήθος μηνυμάτων του γραμματοκιβωτίου.
+     */
+    private static void moveMailbox(int from, int to) {
+        int fromBucket = bucketOf(from);
+        int toBucket = bucketOf(to);
+        if (fromBucket != toBucket){
+            MAILBOX_SIZES[fromBucket].decrement();
+            MAILBOX_SIZES[toBucket].increment();
+        }
+    }
+
+    /**
+     * Επιστρέφει την κατηγορία μεγέθους ενός γραμματοκιβωτίου.
+     * @param messageCount Το πλήθος των μηνυμάτων του γραμματοκιβωτίου.
+     * @return Η θέση της κατηγορίας στο MAILBOX_SIZES.
+     */
+    private static int bucketOf(int messageCount) {
+        int bucket = 0;
+        while (bucket + 1 < SIZE_BUCKET_BOUNDS.length && messageCount >= SIZE_BUCKET_BOUNDS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Μετατρέπει τους λογαριασμούς μίας λίστας "κορυφαίων" σε κείμενο.
+     * @param top Οι λογαριασμοί με την τιμή της μετρικής τους.
+     * @param format Η μορφοποίηση κάθε λογαριασμού από τον λογαριασμό και την τιμή του.
+     * @return Οι λογαριασμοί σε μορφή κειμένου.
+     */
+    private static String[] describe(List<Map.Entry<Account, Long>> top, Function<Map.Entry<Account, Long>, String> format) {
+        String[] results = new String[top.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = format.apply(top.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public long getAccounts() {
+        return ACCOUNTS.sum();
+    }
+
+    @Override
+    public long getMessages() {
+        return MESSAGES.sum();
+    }
+
+    @Override
+    public long getMailboxBytes() {
+        return MAILBOX_BYTES.sum();
+    }
+
+    @Override
+    public long getMessageHeapBytes() {
+        return heapMessages() * Message.HEAP_BYTES;
+    }
+
+    @Override
+    public long getBodyHeapBytes() {
+        return BODY_HEAP_BYTES.sum();
+    }
+
+    @Override
+    public String[] getMailboxSizeDistribution() {
+        String[] results = new String[MAILBOX_SIZES.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = SIZE_BUCKET_NAMES[i] + " messages: " + MAILBOX_SIZES[i].sum();
+        }
+        return results;
+    }
+
+    @Override
+    public String[] getTopAccountsByMessages() {
+        return describe(BY_MESSAGES.top(TOP_ACCOUNTS), e -> e.getKey().getUsername() + ": " + e.getValue() + " messages");
+    }
+
+    @Override
+    public String[] getTopAccountsByBytes() {
+        return describe(BY_BYTES.top(TOP_ACCOUNTS), e -> e.getKey().getUsername() + ": " + e.getValue() / 1024 + " KB");
+    }
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με τον μεγαλύτερο πρόσφατο ρυθμό αιτημάτων. Ο ρυθμός υπολογίζεται από τα αιτήματα
+     * του τρέχοντος και του προηγούμενου χρονικού παραθύρου.
+     * @return Οι λογαριασμοί με τον ρυθμό αιτημάτων τους.
+     */
+    @Override
+    public String[] getTopAccountsByRequestRate() {
+        long now = System.currentTimeMillis();
+        long spanMillis = Math.min(now - STARTED_AT_MILLIS, REQUEST_WINDOW_MILLIS + now % REQUEST_WINDOW_MILLIS);
+        double spanSeconds = Math.max(1, spanMillis) / 1000.0;
+        return describe(BY_REQUESTS.top(TOP_ACCOUNTS), e -> String.format("%s: %.2f requests/s (%d recent requests)",
+                e.getKey().getUsername(), e.getValue() / spanSeconds, e.getValue()));
+    }
+
+    @Override
+    public String dump() {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Capacity: %d accounts, %d messages (%d in memory)%n", getAccounts(), getMessages(),
+                heapMessages()));
+        report.append(String.format("  estimated memory: %d KB messages, %d KB bodies (%d distinct), %d KB all mailboxes%n",
+                getMessageHeapBytes() / 1024, getBodyHeapBytes() / 1024, heapBodies(), getMailboxBytes() / 1024));
+        report.append(String.format("  JVM heap: %d MB used, %d MB max%n",
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20));
+        report.append("Mailbox sizes:").append(System.lineSeparator());
+        appendLines(report, getMailboxSizeDistribution());
+        report.append("Top accounts by messages:").append(System.lineSeparator());
+        appendLines(report, getTopAccountsByMessages());
+        report.append("Top accounts by mailbox size:").append(System.lineSeparator());
+        appendLines(report, getTopAccountsByBytes());
+        report.append("Top accounts by request rate:").append(System.lineSeparator());
+        appendLines(report, getTopAccountsByRequestRate());
+        return report.toString();
+    }
+
+    /**
+     * Προσθέτει στην αναφορά report τις γραμμές lines, με εσοχή.
+     * @param report Η αναφορά.
+     * @param lines Οι γραμμές.
+     */
+    private static void appendLines(StringBuilder report, String[] lines) {
+        for (String line : lines) {
+            report.append("  ").append(line).append(System.lineSeparator());
+        }
+    }
+}
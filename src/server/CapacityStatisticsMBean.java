@@ -0,0 +1,69 @@
+package server;
+
+/**
+ * Η διεπαφή διαχείρισης (JMX) των CapacityStatistics, μέσω της οποίας εμφανίζονται τα στατιστικά χωρητικότητας και
+ * μνήμης του εξυπηρετητή (π.χ. στο jconsole).
+ *
+ * @author Ioannis Baraklilis
+ */
+public interface CapacityStatisticsMBean {
+    /**
+     * Επιστρέφει το πλήθος των λογαριασμών.
+     * @return Το πλήθος των λογαριασμών.
+     */
+    long getAccounts();
+
+    /**
+     * Επιστρέφει το συνολικό πλήθος μηνυμάτων όλων των γραμματοκιβωτίων.
+     * @return Το πλήθος των μηνυμάτων.
+     */
+    long getMessages();
+
+    /**
+     * Επιστρέφει την εκτίμηση του μεγέθους όλων των γραμματοκιβωτίων (στη μνήμη ή στον δίσκο).
+     * @return Η εκτίμηση του μεγέθους (bytes).
+     */
+    long getMailboxBytes();
+
+    /**
+     * Επιστρέφει την εκτίμηση της μνήμης των αντικειμένων Message των γραμματοκιβωτίων που βρίσκονται στη μνήμη.
+     * @return Η εκτίμηση της μνήμης (bytes).
+     */
+    long getMessageHeapBytes();
+
+    /**
+     * Επιστρέφει την εκτίμηση της μνήμης των περιεχομένων των μηνυμάτων στη μνήμη (κάθε κοινό περιεχόμενο μετράει μία φορά).
+     * @return Η εκτίμηση της μνήμης (bytes).
+     */
+    long getBodyHeapBytes();
+
+    /**
+     * Επιστρέφει την κατανομή των γραμματοκιβωτίων ανά πλήθος μηνυμάτων.
+     * @return Οι κατηγορίες μεγέθους με το πλήθος των γραμματοκιβωτίων τους.
+     */
+    String[] getMailboxSizeDistribution();
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με τα περισσότερα μηνύματα.
+     * @return Οι λογαριασμοί με το πλήθος των μηνυμάτων τους.
+     */
+    String[] getTopAccountsByMessages();
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με το μεγαλύτερο (εκτιμώμενο) μέγεθος γραμματοκιβωτίου.
+     * @return Οι λογαριασμοί με το μέγεθος του γραμματοκιβωτίου τους.
+     */
+    String[] getTopAccountsByBytes();
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με τον μεγαλύτερο πρόσφατο ρυθμό αιτημάτων.
+     * @return Οι λογαριασμοί με τον ρυθμό αιτημάτων τους.
+     */
+    String[] getTopAccountsByRequestRate();
+
+    /**
+     * Επιστρέφει πλήρη αναφορά των στατιστικών χωρητικότητας.
+     * @return Η αναφορά σε μορφή κειμένου.
+     */
+    String dump();
+}
@@ -1,11 +1,21 @@
 package server;
 
+import common.BulkOperationResult;
 import common.ClientQueries;
+import common.InboxDelta;
+import common.InboxEntry;
+import common.InboxSnapshot;
+import common.InboxSummary;
+import common.MessageView;
+import common.StatusCode;
 import common.InvalidAuthTokenException;
 
 import java.rmi.RemoteException;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Η υλοποίηση της διεπαφής ClientQueries για τη χρήση RMI από μέρος του Server.
@@ -22,19 +32,84 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
     /** Υλοποιεί την αντιστοίχηση username με θέση λογαριασμού στη λίστα λογαριασμών userAccounts. */
     private final HashMap<String, Integer> usernameToAccount;
 
+    /** Υλοποιεί την αντιστοίχηση ονόματος ομάδας με την αντίστοιχη ομάδα χρηστών. */
+    private final HashMap<String, MessageGroup> messageGroups;
+
     /** Η γεννήτρια τυχαίων αριθμών που θα χρησιμοποιηθεί για τη δημιουργία μοναδικών κωδικών */
     private final Random randomGenerator;
 
+    /**
+     * Το κλείδωμα που προστατεύει το μητρώο λογαριασμών και ομάδων (userAccounts, userAuthTokenToAccount,
+     * usernameToAccount, messageGroups). <br>
+     * Μετράει τον χρόνο αναμονής και κατοχής του (βλ. LockProfiler).
+     */
+    private final ProfiledLock registryLock = new ProfiledLock(LockProfiler.REGISTRY_LOCK);
+
+    /** Ο διαχειριστής της κλιμακωτής αποθήκευσης των γραμματοκιβωτίων ή null αν αυτά παραμένουν πάντα στη μνήμη. */
+    private final MailboxStore mailboxStore;
+
     /**
      * Ο προκαθορισμένος κατασκευαστής
      * @throws RemoteException Σε περίπτωση αποτυχίας εξαγωγής αντικειμένου.
      */
     protected ClientQueriesRemote() throws RemoteException {
-        super();
+        this(null, null);
+    }
+
+    /**
+     * Κατασκευαστής που εξάγει το αντικείμενο χρησιμοποιώντας τα δοσμένα socket factories για τις συνδέσεις RMI.
+     * @param clientSocketFactory Το socket factory που θα χρησιμοποιεί ο client ή null για το προκαθορισμένο.
+     * @param serverSocketFactory Το socket factory που θα χρησιμοποιεί ο server ή null για το προκαθορισμένο.
+     * @throws RemoteException Σε περίπτωση αποτυχίας εξαγωγής αντικειμένου.
+     */
+    protected ClientQueriesRemote(RMIClientSocketFactory clientSocketFactory, RMIServerSocketFactory serverSocketFactory)
+            throws RemoteException {
+        this(clientSocketFactory, serverSocketFactory, null);
+    }
+
+    /**
+     * Κατασκευαστής που εξάγει το αντικείμενο χρησιμοποιώντας τα δοσμένα socket factories για τις συνδέσεις RMI και
+     * αποθηκεύει τα γραμματοκιβώτια μέσω του δοσμένου διαχειριστή κλιμακωτής αποθήκευσης.
+     * @param clientSocketFactory Το socket factory που θα χρησιμοποιεί ο client ή null για το προκαθορισμένο.
+     * @param serverSocketFactory Το socket factory που θα χρησιμοποιεί ο server ή null για το προκαθορισμένο.
+     * @param mailboxStore Ο διαχειριστής της κλιμακωτής αποθήκευσης ή null ώστε τα γραμματοκιβώτια να παραμένουν πάντα
+     *                     στη μνήμη.
+     * @throws RemoteException Σε περίπτωση αποτυχίας εξαγωγής αντικειμένου.
+     */
+    protected ClientQueriesRemote(RMIClientSocketFactory clientSocketFactory, RMIServerSocketFactory serverSocketFactory,
+                                  MailboxStore mailboxStore) throws RemoteException {
+        this(clientSocketFactory, serverSocketFactory, mailboxStore, new Random());
+    }
+
+    /**
+     * Κατασκευαστής που, επιπλέον, χρησιμοποιεί τη δοσμένη γεννήτρια τυχαίων αριθμών για τους κωδικούς
+     * αυθεντικοποίησης (π.χ. ώστε οι έλεγχοι να προκαλούν συγκρούσεις tokens).
+     * @param clientSocketFactory Το socket factory που θα χρησιμοποιεί ο client ή null για το προκαθορισμένο.
+     * @param serverSocketFactory Το socket factory που θα χρησιμοποιεί ο server ή null για το προκαθορισμένο.
+     * @param mailboxStore Ο διαχειριστής της κλιμακωτής αποθήκευσης ή null ώστε τα γραμματοκιβώτια να παραμένουν πάντα
+     *                     στη μνήμη.
+     * @param randomGenerator Η γεννήτρια τυχαίων αριθμών για τη δημιουργία των κωδικών αυθεντικοποίησης.
+     * @throws RemoteException Σε περίπτωση αποτυχίας εξαγωγής αντικειμένου.
+     */
+    ClientQueriesRemote(RMIClientSocketFactory clientSocketFactory, RMIServerSocketFactory serverSocketFactory,
+                        MailboxStore mailboxStore, Random randomGenerator) throws RemoteException {
+        super(0, clientSocketFactory, serverSocketFactory);
+        this.mailboxStore = mailboxStore;
         userAccounts = new ArrayList<>();
         userAuthTokenToAccount = new HashMap<>();
         usernameToAccount = new HashMap<>();
-        randomGenerator = new Random();
+        messageGroups = new HashMap<>();
+        this.randomGenerator = randomGenerator;
+    }
+
+    /**
+     * Επιστρέφει έναν τυχαίο μη αρνητικό υποψήφιο κωδικό αυθεντικοποίησης, χωρίς να ελέγχει αν είναι δεσμευμένος.
+     * Η γεννήτρια randomGenerator είναι ασφαλής για ταυτόχρονη χρήση, οπότε δε χρειάζεται κλείδωμα.
+     * @return Ο υποψήφιος κωδικός.
+     */
+    private int randomAuthToken(){
+        int tempNumber = randomGenerator.nextInt();
+        return tempNumber>=0?tempNumber:-tempNumber;
     }
 
     /**
@@ -52,16 +127,17 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
     private int generateUniqueAuthToken(){
         int tempNumber ;
 
-        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός synchronized block.
-        synchronized (this){
-            tempNumber = randomGenerator.nextInt();
-            tempNumber = tempNumber>=0?tempNumber:-tempNumber;
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            tempNumber = randomAuthToken();
 
             // Συνεχή παραγωγή τυχαίων αριθμών μέχρις ότου βρεθεί κάποιος που δεν είναι εγγεγραμμένος.
             while (userAuthTokenToAccount.containsKey(tempNumber)) {
-                tempNumber = randomGenerator.nextInt();
-                tempNumber = tempNumber>=0?tempNumber:-tempNumber;
+                tempNumber = randomAuthToken();
             }
+        } finally {
+            registryLock.unlock();
         }
 
         return tempNumber;
@@ -75,18 +151,92 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
      */
     private Account getValidUser(int authToken){
         Account thisAccount;
-        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός synchronized block.
-        synchronized (this) {
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
             Integer userAccountsPosition = userAuthTokenToAccount.get(authToken);
             if (userAccountsPosition == null) // Ελέγχω για την εγκυρότητα του authToken
                 return null;
 
             thisAccount = userAccounts.get(userAccountsPosition);
+        } finally {
+            registryLock.unlock();
         }
 
+        // Καταγραφή του αιτήματος για τα στατιστικά χωρητικότητας (εκτός του κλειδώματος registryLock).
+        thisAccount.recordRequest();
         return thisAccount;
     }
 
+    /**
+     * Επιστρέφει το κλείδωμα του μητρώου λογαριασμών (για τον μηδενισμό των στατιστικών του από τον LockProfiler).
+     * @return Το κλείδωμα του μητρώου.
+     */
+    ProfiledLock getRegistryLock() {
+        return registryLock;
+    }
+
+    /**
+     * Επιστρέφει στιγμιότυπο (αντίγραφο) της λίστας των αποθηκευμένων λογαριασμών, π.χ. για τη δημιουργία αναφορών.
+     * @return Οι αποθηκευμένοι λογαριασμοί.
+     */
+    Account[] getAccountsSnapshot(){
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            return userAccounts.toArray(new Account[0]);
+        } finally {
+            registryLock.unlock();
+        }
+    }
+
+    /**
+     * Επιστρέφει τους λογαριασμούς (χωρίς επαναλήψεις) που αντιστοιχούν στα δοσμένα usernames, με μία μόνο είσοδο στο
+     * κρίσιμο τμήμα. <br>
+     * Αν κάποιο username δεν αντιστοιχεί σε λογαριασμό, επιστρέφεται null και το username αυτό αποθηκεύεται στην πρώτη
+     * θέση του missingUsername.
+     * @param usernames Τα usernames των λογαριασμών που αναζητούνται.
+     * @param missingUsername Πίνακας (τουλάχιστον) ενός στοιχείου όπου αποθηκεύεται το username που δε βρέθηκε.
+     * @return Οι λογαριασμοί που αναζητούνται ή null αν κάποιος δεν υπάρχει.
+     */
+    private Account[] findAccounts(String[] usernames, String[] missingUsername){
+        // Χρησιμοποιώ LinkedHashSet ώστε να απαλειφθούν οι επαναλήψεις διατηρώντας τη σειρά των ορισμάτων.
+        LinkedHashSet<Account> accounts = new LinkedHashSet<>();
+
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            for (String username : usernames) {
+                Integer accountPosition = usernameToAccount.get(username);
+                if (accountPosition == null){ // Ο χρήστης δεν υπάρχει, τερματισμός αναζήτησης.
+                    missingUsername[0] = username;
+                    return null;
+                }
+                accounts.add(userAccounts.get(accountPosition));
+            }
+        } finally {
+            registryLock.unlock();
+        }
+
+        return accounts.toArray(new Account[0]);
+    }
+
+    /**
+     * Προσθέτει ένα μήνυμα με αποστολέα senderUsername και περιεχόμενο messageBody στο γραμματοκιβώτιο κάθε
+     * παραλήπτη. Το περιεχόμενο του μηνύματος δημιουργείται μία φορά και είναι κοινό για όλους τους παραλήπτες. <br>
+     * Η παράδοση γίνεται εκτός του κρίσιμου τμήματος του αντικειμένου, ώστε να κλειδώνεται μόνο κάθε γραμματοκιβώτιο.
+     * @param senderUsername Ο αποστολέας του μηνύματος.
+     * @param recipients Οι λογαριασμοί των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     */
+    private void deliverToAll(String senderUsername, Account[] recipients, String messageBody){
+        SharedMessageBody content = new SharedMessageBody(senderUsername, messageBody);
+
+        for (Account recipient : recipients) {
+            recipient.addMessageInMessageBox(content);
+        }
+    }
+
     /**
      * Ελέγχει την εγκυρότητα του token του ορίσματος ως token που αντιστοιχεί σε αποθηκευμένο χρήστη και επιστρέφει το αποτέλεσμα.
      * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη, του οποίου η ύπαρξη επαληθεύεται.
@@ -95,8 +245,11 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
     private boolean checkTokenValidity(int authToken){
         boolean valid = false;
 
-        synchronized (this) {
+        registryLock.lock();
+        try {
             valid = userAuthTokenToAccount.containsKey(authToken);
+        } finally {
+            registryLock.unlock();
         }
 
         return valid;
@@ -117,27 +270,185 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
     @Override
     public String createAccount(String username) throws RemoteException {
         // Έλεγχος ορθότητας μορφής username.
-        if (username==null || !username.matches("(\\p{IsAlphabetic}|[0-9]|_)+")){
-            return "Invalid Username";
+        if (!Account.isValidUsername(username)){
+            return StatusCode.INVALID_USERNAME.getDescription();
         }
 
-        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός synchronized block.
-        synchronized (this){
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
             // Έλεγχος για το αν υπάρχει χρήστης με το ίδιο όνομα.
             if (usernameToAccount.containsKey(username)){
-                return "Sorry, the user already exists";
+                return StatusCode.USER_ALREADY_EXISTS.getDescription();
             }
 
             // Δημιουργία νέου λογαριασμού και εγγραφή του στις δομές δεδομένων του προγράμματος.
-            int newAuthToken = generateUniqueAuthToken();
-            Account newAccount = new Account(username, newAuthToken, new ArrayList<>());
-            userAccounts.add(newAccount); // Προσθήκη του νέου λογαριασμού στη λίστα.
-            int newAccountPlace = userAccounts.size()-1; // Εύρεση της θέσης του νέου λογαριασμού στη λίστα.
-            userAuthTokenToAccount.put(newAuthToken, newAccountPlace); // Δημιουργία αντιστοίχησης authToken-λογαριασμού.
-            usernameToAccount.put(username, newAccountPlace); // Δημιουργία αντιστοίχησης username-λογαριασμού.
+            return String.valueOf(registerAccount(username, new ArrayList<>()));
+        } finally {
+            registryLock.unlock();
+        }
+    }
+
+    @Override
+    public String[] createAccounts(String[] usernames) throws RemoteException {
+        if (usernames == null){ // Κανένα username, οπότε και κανένα αποτέλεσμα.
+            return new String[0];
+        }
 
-            return String.valueOf(newAuthToken);
+        AccountCreation[] creations = createAccounts(usernames, Collections.emptyMap());
+        String[] results = new String[creations.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = creations[i].toString();
         }
+        return results;
+    }
+
+    /**
+     * Το αποτέλεσμα της δημιουργίας ενός λογαριασμού από την createAccounts: ο κωδικός κατάστασης και, σε περίπτωση
+     * επιτυχίας, το token του νέου χρήστη.
+     */
+    static final class AccountCreation {
+        /** Ο κωδικός κατάστασης (OK, INVALID_USERNAME ή USER_ALREADY_EXISTS). */
+        private final StatusCode status;
+
+        /** Το token του νέου χρήστη (μόνο σε περίπτωση επιτυχίας). */
+        private final int authToken;
+
+        AccountCreation(StatusCode status, int authToken) {
+            this.status = status;
+            this.authToken = authToken;
+        }
+
+        StatusCode getStatus() {
+            return status;
+        }
+
+        int getAuthToken() {
+            return authToken;
+        }
+
+        /**
+         * Επιστρέφει το αποτέλεσμα όπως το επιστρέφει η createAccount: το token ή την περιγραφή του σφάλματος.
+         */
+        @Override
+        public String toString() {
+            return status == StatusCode.OK ? String.valueOf(authToken) : status.getDescription();
+        }
+    }
+
+    /**
+     * Δημιουργεί ένα account για κάθε ένα από τα δοσμένα usernames, με αρχικό περιεχόμενο γραμματοκιβωτίου (π.χ. κατά
+     * την εισαγωγή δεδομένων, βλ. AccountImporter). <br>
+     *
+     * Ο έλεγχος μορφής των usernames γίνεται παράλληλα και η δημιουργία των λογαριασμών (με τα μηνύματά τους και
+     * υποψήφια τυχαία tokens) γίνεται εκτός του κλειδώματος registryLock. Εντός του κλειδώματος γίνεται μόνο ο έλεγχος
+     * για ήδη υπάρχοντα usernames και tokens και η καταχώρηση όλων των λογαριασμών μαζί (addAll/putAll), ώστε τα
+     * υπόλοιπα αιτήματα να μην περιμένουν όσο διαρκεί η προετοιμασία.
+     * @param usernames Τα usernames των νέων χρηστών που θα δημιουργηθούν.
+     * @param mailboxes Το αρχικό περιεχόμενο του γραμματοκιβωτίου κάθε username (με σειρά άφιξης). Τα usernames που
+     *                  δεν περιέχονται ξεκινούν με κενό γραμματοκιβώτιο.
+     * @return Για κάθε username (στην ίδια θέση) το αποτέλεσμα της δημιουργίας του λογαριασμού.
+     */
+    AccountCreation[] createAccounts(String[] usernames, Map<String, List<SharedMessageBody>> mailboxes) {
+        boolean[] valid = new boolean[usernames.length];
+        IntStream.range(0, usernames.length).parallel().forEach(i -> valid[i] = Account.isValidUsername(usernames[i]));
+
+        // Δημιουργία των λογαριασμών εκτός του κλειδώματος. Από τα usernames που επαναλαμβάνονται, κρατείται το πρώτο.
+        AccountCreation[] results = new AccountCreation[usernames.length];
+        Account[] candidates = new Account[usernames.length];
+        Set<String> batchUsernames = new HashSet<>();
+        Set<Integer> batchTokens = new HashSet<>();
+        for (int i = 0; i < usernames.length; i++) {
+            if (!valid[i]){
+                results[i] = new AccountCreation(StatusCode.INVALID_USERNAME, 0);
+            } else if (!batchUsernames.add(usernames[i])){
+                results[i] = new AccountCreation(StatusCode.USER_ALREADY_EXISTS, 0);
+            } else {
+                List<Message> messageBox = new ArrayList<>();
+                for (SharedMessageBody content : mailboxes.getOrDefault(usernames[i], Collections.emptyList())) {
+                    messageBox.add(new Message(false, content, usernames[i]));
+                }
+                int candidateToken;
+                do {
+                    candidateToken = randomAuthToken();
+                } while (!batchTokens.add(candidateToken));
+                candidates[i] = new Account(usernames[i], candidateToken, messageBox);
+            }
+        }
+
+        List<Account> published = new ArrayList<>();
+        List<Account> rejected = new ArrayList<>();
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            HashMap<Integer, Integer> newTokens = new HashMap<>();
+            HashMap<String, Integer> newUsernames = new HashMap<>();
+            for (int i = 0; i < candidates.length; i++) {
+                Account candidate = candidates[i];
+                if (candidate == null){
+                    continue;
+                } else if (usernameToAccount.containsKey(candidate.getUsername())){
+                    results[i] = new AccountCreation(StatusCode.USER_ALREADY_EXISTS, 0);
+                    rejected.add(candidate);
+                    continue;
+                }
+
+                // Σπάνια περίπτωση: το υποψήφιο token έχει ήδη δεσμευτεί, οπότε επιλέγεται νέο.
+                if (userAuthTokenToAccount.containsKey(candidate.getAuthToken())){
+                    int newAuthToken;
+                    do {
+                        newAuthToken = generateUniqueAuthToken();
+                    } while (!batchTokens.add(newAuthToken));
+                    candidate.reassignAuthToken(newAuthToken);
+                }
+
+                int newAccountPlace = userAccounts.size() + published.size();
+                newTokens.put(candidate.getAuthToken(), newAccountPlace);
+                newUsernames.put(candidate.getUsername(), newAccountPlace);
+                published.add(candidate);
+                results[i] = new AccountCreation(StatusCode.OK, candidate.getAuthToken());
+            }
+
+            // Καταχώρηση όλων των νέων λογαριασμών μαζί.
+            userAccounts.addAll(published);
+            userAuthTokenToAccount.putAll(newTokens);
+            usernameToAccount.putAll(newUsernames);
+        } finally {
+            registryLock.unlock();
+        }
+
+        // Οι λογαριασμοί που απορρίφθηκαν αφαιρούνται από τα στατιστικά και οι υπόλοιποι συνδέονται με τον διαχειριστή
+        // της κλιμακωτής αποθήκευσης (εκτός του κλειδώματος, αφού αφορούν μόνο το κλείδωμα του κάθε λογαριασμού).
+        for (Account account : rejected) {
+            account.discard();
+        }
+        if (mailboxStore != null){
+            for (Account account : published) {
+                account.setMailboxStore(mailboxStore);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Δημιουργεί νέο λογαριασμό με το δοσμένο (έγκυρο και μη δεσμευμένο) username και τον εγγράφει στις δομές
+     * δεδομένων του προγράμματος. Πρέπει να καλείται εντός του κλειδώματος registryLock.
+     * @param username Το username του νέου χρήστη.
+     * @param messageBox Το αρχικό γραμματοκιβώτιο του χρήστη.
+     * @return Ο μοναδικός κωδικός (token) του νέου χρήστη.
+     */
+    private int registerAccount(String username, List<Message> messageBox){
+        int newAuthToken = generateUniqueAuthToken();
+        Account newAccount = new Account(username, newAuthToken, messageBox);
+        if (mailboxStore != null){
+            newAccount.setMailboxStore(mailboxStore);
+        }
+        userAccounts.add(newAccount); // Προσθήκη του νέου λογαριασμού στη λίστα.
+        int newAccountPlace = userAccounts.size()-1; // Εύρεση της θέσης του νέου λογαριασμού στη λίστα.
+        userAuthTokenToAccount.put(newAuthToken, newAccountPlace); // Δημιουργία αντιστοίχησης authToken-λογαριασμού.
+        usernameToAccount.put(username, newAccountPlace); // Δημιουργία αντιστοίχησης username-λογαριασμού.
+        return newAuthToken;
     }
 
     /**
@@ -153,14 +464,18 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
             throw new InvalidAuthTokenException();
         }
 
-        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός synchronized block.
-        synchronized (this){
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
             return usernameToAccount.keySet().toArray(new String[0]);
+        } finally {
+            registryLock.unlock();
         }
     }
 
     /**
-     * Στέλνει το μήνυμα messageBody στο account με username recipient.
+     * Στέλνει το μήνυμα messageBody στο account με username recipient. <br>
+     * Λεπτό περίβλημα (wrapper) του sendMessageStatus που επιστρέφει την περιγραφή του κωδικού κατάστασης.
      *
      * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
      * @param recipient Το username του παραλήπτη.
@@ -170,6 +485,73 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
      */
     @Override
     public String sendMessage(int authToken, String recipient, String messageBody) throws RemoteException, InvalidAuthTokenException {
+        return sendMessageStatus(authToken, recipient, messageBody).getDescription();
+    }
+
+    /**
+     * Εμφανίζει τη λίστα με όλα τα μηνύματα για έναν συγκεκριμένο χρήστη. <br>
+     * Λεπτό περίβλημα (wrapper) του showInboxEntries που μορφοποιεί κάθε εγγραφή ως κείμενο.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Λίστα με όλα τα μηνύματα του χρήστη. <br>
+     *         Για κάθε στοιχείο της λίστας, εμφανίζεται ο μοναδικός κωδικός του μηνύματος,
+     *         το username αποστολέα και η κατάσταση για το αν έχει ήδη διαβαστεί. <br>
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public String[] showInbox(int authToken) throws RemoteException, InvalidAuthTokenException {
+        InboxEntry[] entries = showInboxEntries(authToken);
+
+        // Μορφοποιώ κάθε εγγραφή ως κείμενο.
+        String[] queryResults = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            queryResults[i] = entries[i].toString();
+        }
+
+        return queryResults;
+    }
+
+    /**
+     * Αυτή η λειτουργία επιστρέφει το περιεχόμενο ενός μηνύματος του χρήστη με id messageId.
+     * Έπειτα το μήνυμα (αν υπάρχει) σημειώνεται ως διαβασμένο. <br>
+     * Λεπτό περίβλημα (wrapper) του readMessageView που μορφοποιεί το αποτέλεσμα ως κείμενο.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς ανάγνωση.
+     * @return Το περιεχόμενο του μηνύματος, αν υπάρχει. <br>
+     *         Αν το μήνυμα δεν υπάρχει, επιστρέφεται "Message ID does not exist".
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public String readMessage(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+        return readMessageView(authToken, messageId).toString();
+    }
+
+    /**
+     * Αυτή η λειτουργία διαγράφει το μήνυμα με id messageId. <br>
+     * Λεπτό περίβλημα (wrapper) του deleteMessageStatus που επιστρέφει την περιγραφή του κωδικού κατάστασης.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς διαγραφή.
+     * @return "OK", σε περίπτωση επιτυχίας ή "Message does not exist" αν το μήνυμα δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public String deleteMessage(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+        return deleteMessageStatus(authToken, messageId).getDescription();
+    }
+
+    /**
+     * Στέλνει το μήνυμα messageBody στο account με username recipient.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipient Το username του παραλήπτη.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας ή USER_DOES_NOT_EXIST αν ο παραλήπτης δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public StatusCode sendMessageStatus(int authToken, String recipient, String messageBody) throws RemoteException, InvalidAuthTokenException {
         if (!checkTokenValidity(authToken)){
             throw new InvalidAuthTokenException();
         }
@@ -180,8 +562,9 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
         // Βρίσκω τον λογαριασμό του χρήστη που λαμβάνει το μήνυμα.
         Account recipientAccount;
 
-        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός synchronized block.
-        synchronized (this) {
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
             Integer accountPosition = usernameToAccount.get(recipient);
             // Ο παραλήπτης μπορεί να μην υπάρχει, έλεγχος για το αν υπάρχει.
             if (accountPosition != null){
@@ -189,84 +572,454 @@ public class ClientQueriesRemote extends UnicastRemoteObject implements ClientQu
             } else {
                 recipientAccount = null;
             }
+        } finally {
+            registryLock.unlock();
         }
 
         // Έλεγχος για το αν το προφίλ του χρήστη παραλήπτη υπάρχει.
         if (recipientAccount == null) {
-            return "User does not exist";
+            return StatusCode.USER_DOES_NOT_EXIST;
         }
 
         // Προσθήκη μηνύματος στο γραμματοκιβώτιο παραλήπτη.
         recipientAccount.addMessageInMessageBox(thisUser.getUsername(), messageBody);
 
-        return "OK";
+        return StatusCode.OK;
     }
 
     /**
-     * Εμφανίζει τη λίστα με όλα τα μηνύματα για έναν συγκεκριμένο χρήστη.
+     * Επιστρέφει τις εγγραφές της λίστας μηνυμάτων του χρήστη (κωδικός, αποστολέας, κατάσταση ανάγνωσης).
      *
      * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
-     * @return Λίστα με όλα τα μηνύματα του χρήστη. <br>
-     *         Για κάθε στοιχείο της λίστας, εμφανίζεται ο μοναδικός κωδικός του μηνύματος,
-     *         το username αποστολέα και η κατάσταση για το αν έχει ήδη διαβαστεί. <br>
+     * @return Οι εγγραφές της λίστας μηνυμάτων του χρήστη.
      * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
      */
     @Override
-    public String[] showInbox(int authToken) throws RemoteException, InvalidAuthTokenException {
+    public InboxEntry[] showInboxEntries(int authToken) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.getInboxEntries();
+    }
+
+    /**
+     * Επιστρέφει τον αποστολέα και το περιεχόμενο ενός μηνύματος του χρήστη με id messageId.
+     * Έπειτα το μήνυμα (αν υπάρχει) σημειώνεται ως διαβασμένο.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς ανάγνωση.
+     * @return Το αποτέλεσμα της ανάγνωσης, με κωδικό κατάστασης MESSAGE_DOES_NOT_EXIST αν το μήνυμα δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public MessageView readMessageView(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        // Σημειώνω το μήνυμα ως διαβασμένο και επιστρέφω το περιεχόμενο του.
+        return thisUser.readMessage(messageId);
+    }
+
+    /**
+     * Διαγράφει το μήνυμα του χρήστη με id messageId.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageId Ο μοναδικός κωδικός μηνύματος προς διαγραφή.
+     * @return OK σε περίπτωση επιτυχίας ή MESSAGE_DOES_NOT_EXIST αν το μήνυμα δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public StatusCode deleteMessageStatus(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        // Επιχειρώ να διαγράψω το μήνυμα και επιστρέφω τα αποτελέσματα της διαγραφής.
+        return thisUser.deleteMessage(messageId);
+    }
+
+    /**
+     * Δημιουργεί μία ονομαστική ομάδα χρηστών με μέλη τους χρήστες με τα δοσμένα usernames. <br>
+     * Λεπτό περίβλημα (wrapper) της createGroupStatus που επιστρέφει την περιγραφή του κωδικού κατάστασης.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του δημιουργού της ομάδας.
+     * @param groupName Το όνομα της νέας ομάδας.
+     * @param members Τα usernames των μελών της ομάδας.
+     * @return "OK", σε περίπτωση επιτυχίας. <br>
+     *         "Sorry, the group already exists", αν το όνομα της ομάδας ήδη χρησιμοποιείται. <br>
+     *         "Invalid Group Name", αν το όνομα της ομάδας έχει λάθος μορφή. <br>
+     *         "User does not exist: " ακολουθούμενο από το username, αν κάποιο μέλος δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public String createGroup(int authToken, String groupName, String[] members) throws RemoteException, InvalidAuthTokenException {
+        String[] missingUsername = new String[1];
+        return describe(createGroup(authToken, groupName, members, missingUsername), missingUsername);
+    }
+
+    /**
+     * Δημιουργεί μία ονομαστική ομάδα χρηστών με μέλη τους χρήστες με τα δοσμένα usernames.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του δημιουργού της ομάδας.
+     * @param groupName Το όνομα της νέας ομάδας.
+     * @param members Τα usernames των μελών της ομάδας.
+     * @return OK σε περίπτωση επιτυχίας, GROUP_ALREADY_EXISTS, INVALID_GROUP_NAME ή USER_DOES_NOT_EXIST αν κάποιο
+     *         μέλος δεν υπάρχει.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public StatusCode createGroupStatus(int authToken, String groupName, String[] members) throws RemoteException, InvalidAuthTokenException {
+        return createGroup(authToken, groupName, members, new String[1]);
+    }
+
+    /**
+     * Η υλοποίηση της δημιουργίας ομάδας, κοινή για το typed API και το API κειμένου.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του δημιουργού της ομάδας.
+     * @param groupName Το όνομα της νέας ομάδας.
+     * @param members Τα usernames των μελών της ομάδας.
+     * @param missingUsername Πίνακας ενός στοιχείου όπου αποθηκεύεται το username του μέλους που δεν υπάρχει.
+     * @return Ο κωδικός κατάστασης της δημιουργίας.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    private StatusCode createGroup(int authToken, String groupName, String[] members, String[] missingUsername) throws InvalidAuthTokenException {
         if (!checkTokenValidity(authToken)){
             throw new InvalidAuthTokenException();
         }
 
-        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη.
+        // Έλεγχος ορθότητας μορφής ονόματος ομάδας (ίδιοι κανόνες με το username).
+        if (!Account.isValidUsername(groupName)){
+            return StatusCode.INVALID_GROUP_NAME;
+        }
+
+        // Βρίσκω τον λογαριασμό του δημιουργού της ομάδας.
         Account thisUser = getValidUser(authToken);
 
-        // Προσωρινή λίστα που αποθηκεύει τα ενδιάμεσα αποτελέσματα που τελικά θα επιστραφούν στον client.
-        ArrayList<String> queryResults = new ArrayList<>();
+        // Βρίσκω τους λογαριασμούς των μελών.
+        Account[] memberAccounts = findAccounts(members == null ? new String[0] : members, missingUsername);
+        if (memberAccounts == null){
+            return StatusCode.USER_DOES_NOT_EXIST;
+        }
+
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            // Έλεγχος για το αν υπάρχει ομάδα με το ίδιο όνομα.
+            if (messageGroups.containsKey(groupName)){
+                return StatusCode.GROUP_ALREADY_EXISTS;
+            }
 
-        // Για κάθε μήνυμα, επεκτείνω τη λίστα με τα αποτελέσματα.
-        for (Message m : thisUser.getMessageBoxContents()) {
-            queryResults.add(String.format("%d. from: %s%s", m.getId(), m.getSender(), m.isRead() ? "" : "*"));
+            messageGroups.put(groupName, new MessageGroup(groupName, thisUser.getUsername(), memberAccounts));
+        } finally {
+            registryLock.unlock();
         }
 
-        return queryResults.toArray(new String[0]);
+        return StatusCode.OK;
     }
 
     /**
-     * Αυτή η λειτουργία επιστρέφει το περιεχόμενο ενός μηνύματος του χρήστη με id messageId.
-     * Έπειτα το μήνυμα (αν υπάρχει) σημειώνεται ως διαβασμένο.
-     * Αν το μήνυμα δεν υπάρχει, επιστρέφεται "Message ID does not exist".
+     * Στέλνει το μήνυμα messageBody σε όλα τα μέλη της ομάδας με όνομα groupName. <br>
+     * Λεπτό περίβλημα (wrapper) της sendGroupMessageStatus που επιστρέφει την περιγραφή του κωδικού κατάστασης.
      *
-     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
-     * @param messageId Ο μοναδικός κωδικός μηνύματος προς ανάγνωση.
-     * @return Το περιεχόμενο του μηνύματος, αν υπάρχει. <br>
-     *         Αν το μήνυμα δεν υπάρχει, επιστρέφεται "Message ID does not exist".
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param groupName Το όνομα της ομάδας παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return "OK", σε περίπτωση επιτυχίας. <br>
+     *         "Group does not exist", αν η ομάδα δεν υπάρχει. <br>
+     *         "Not a member of the group", αν ο αποστολέας δεν είναι ο δημιουργός ή μέλος της ομάδας.
      * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
      */
     @Override
-    public String readMessage(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+    public String sendGroupMessage(int authToken, String groupName, String messageBody) throws RemoteException, InvalidAuthTokenException {
+        return sendGroupMessageStatus(authToken, groupName, messageBody).getDescription();
+    }
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλα τα μέλη της ομάδας με όνομα groupName. Ο αποστολέας πρέπει να είναι ο
+     * δημιουργός ή μέλος της ομάδας. <br>
+     * Το περιεχόμενο του μηνύματος αποθηκεύεται μία φορά και είναι κοινό για όλα τα μέλη.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param groupName Το όνομα της ομάδας παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας, GROUP_DOES_NOT_EXIST ή NOT_A_GROUP_MEMBER.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public StatusCode sendGroupMessageStatus(int authToken, String groupName, String messageBody) throws RemoteException, InvalidAuthTokenException {
         if (!checkTokenValidity(authToken)){
             throw new InvalidAuthTokenException();
         }
 
-        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, σημειώνω το μήνυμα ως διαβασμένο και επιστρέφω το περιεχόμενο του.
-        return getValidUser(authToken).readMessage(messageId);
+        // Βρίσκω τον λογαριασμό του χρήστη που στέλνει το μήνυμα.
+        Account thisUser = getValidUser(authToken);
+
+        // Βρίσκω την ομάδα παραληπτών.
+        MessageGroup group;
+
+        // Εξασφάλιση συγχρονισμού μεθόδου: Εισάγω το κρίσιμο τμήμα εντός του κλειδώματος registryLock.
+        registryLock.lock();
+        try {
+            group = messageGroups.get(groupName);
+        } finally {
+            registryLock.unlock();
+        }
+
+        // Έλεγχος για το αν η ομάδα υπάρχει.
+        if (group == null){
+            return StatusCode.GROUP_DOES_NOT_EXIST;
+        }
+
+        // Έλεγχος για το αν ο αποστολέας επιτρέπεται να στέλνει μηνύματα στην ομάδα.
+        if (!group.canSend(thisUser)){
+            return StatusCode.NOT_A_GROUP_MEMBER;
+        }
+
+        // Προσθήκη μηνύματος στο γραμματοκιβώτιο κάθε μέλους.
+        deliverToAll(thisUser.getUsername(), group.getMembers(), messageBody);
+
+        return StatusCode.OK;
     }
 
     /**
-     * Αυτή η λειτουργία διαγράφει το μήνυμα με id messageId.
+     * Στέλνει το μήνυμα messageBody σε όλους τους χρήστες με username που περιέχεται στο recipients. <br>
+     * Λεπτό περίβλημα (wrapper) της sendMessageToManyStatus που επιστρέφει την περιγραφή του κωδικού κατάστασης.
      *
-     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
-     * @param messageId Ο μοναδικός κωδικός μηνύματος προς διαγραφή.
-     * @return "OK", σε περίπτωση επιτυχίας ή "Message ID does not exist" αν το μήνυμα δεν υπάρχει.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipients Τα usernames των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return "OK", σε περίπτωση επιτυχίας ή "User does not exist: " ακολουθούμενο από το username, αν κάποιος
+     *         παραλήπτης δεν υπάρχει (οπότε το μήνυμα δεν αποστέλλεται σε κανέναν).
      * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
      */
     @Override
-    public String deleteMessage(int authToken, int messageId) throws RemoteException, InvalidAuthTokenException {
+    public String sendMessageToMany(int authToken, String[] recipients, String messageBody) throws RemoteException, InvalidAuthTokenException {
+        String[] missingUsername = new String[1];
+        return describe(sendMessageToMany(authToken, recipients, messageBody, missingUsername), missingUsername);
+    }
+
+    /**
+     * Στέλνει το μήνυμα messageBody σε όλους τους χρήστες με username που περιέχεται στο recipients.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipients Τα usernames των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @return OK σε περίπτωση επιτυχίας ή USER_DOES_NOT_EXIST αν κάποιος παραλήπτης δεν υπάρχει (οπότε το μήνυμα δεν
+     *         αποστέλλεται σε κανέναν).
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public StatusCode sendMessageToManyStatus(int authToken, String[] recipients, String messageBody) throws RemoteException, InvalidAuthTokenException {
+        return sendMessageToMany(authToken, recipients, messageBody, new String[1]);
+    }
+
+    /**
+     * Η υλοποίηση της αποστολής σε πολλούς παραλήπτες, κοινή για το typed API και το API κειμένου.
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του αποστολέα.
+     * @param recipients Τα usernames των παραληπτών.
+     * @param messageBody Το περιεχόμενο του μηνύματος.
+     * @param missingUsername Πίνακας ενός στοιχείου όπου αποθηκεύεται το username του παραλήπτη που δεν υπάρχει.
+     * @return Ο κωδικός κατάστασης της αποστολής.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    private StatusCode sendMessageToMany(int authToken, String[] recipients, String messageBody, String[] missingUsername) throws InvalidAuthTokenException {
         if (!checkTokenValidity(authToken)){
             throw new InvalidAuthTokenException();
         }
 
-        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, επιχειρώ να το διαγράψω και επιστρέφω τα αποτελέσματα της διαγραφής.
-        return getValidUser(authToken).deleteMessage(messageId);
+        // Βρίσκω τον λογαριασμό του χρήστη που στέλνει το μήνυμα.
+        Account thisUser = getValidUser(authToken);
+
+        // Βρίσκω τους λογαριασμούς των παραληπτών.
+        Account[] recipientAccounts = findAccounts(recipients == null ? new String[0] : recipients, missingUsername);
+        if (recipientAccounts == null){
+            return StatusCode.USER_DOES_NOT_EXIST;
+        }
+
+        // Προσθήκη μηνύματος στο γραμματοκιβώτιο κάθε παραλήπτη.
+        deliverToAll(thisUser.getUsername(), recipientAccounts, messageBody);
+
+        return StatusCode.OK;
+    }
+
+    /**
+     * Επιστρέφει την περιγραφή του κωδικού κατάστασης για το API κειμένου, με το username που δε βρέθηκε στην
+     * περίπτωση του USER_DOES_NOT_EXIST.
+     * @param status Ο κωδικός κατάστασης.
+     * @param missingUsername Πίνακας ενός στοιχείου με το username που δε βρέθηκε.
+     * @return Η περιγραφή του κωδικού κατάστασης.
+     */
+    private static String describe(StatusCode status, String[] missingUsername) {
+        if (status == StatusCode.USER_DOES_NOT_EXIST){
+            return status.getDescription() + ": " + missingUsername[0];
+        }
+        return status.getDescription();
+    }
+
+    /**
+     * Επιστρέφει σύνοψη του γραμματοκιβωτίου του χρήστη (πλήθος μηνυμάτων, μη διαβασμένων μηνυμάτων και κωδικό του
+     * νεότερου μηνύματος). <br>
+     * Οι τιμές διατηρούνται σταδιακά από τον λογαριασμό, οπότε η λειτουργία δε διατρέχει τη λίστα μηνυμάτων.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Η σύνοψη του γραμματοκιβωτίου του χρήστη.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public InboxSummary inboxSummary(int authToken) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.getInboxSummary();
+    }
+
+    /**
+     * Διαγράφει τα μηνύματα του χρήστη με κωδικούς που περιέχονται στο messageIds. <br>
+     * Όλες οι διαγραφές εκτελούνται με μία μόνο είσοδο στο κρίσιμο τμήμα του λογαριασμού και ένα πέρασμα της λίστας.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param messageIds Οι κωδικοί των μηνυμάτων προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν και οι κωδικοί που δε βρέθηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public BulkOperationResult deleteMessages(int authToken, int[] messageIds) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.deleteMessages(messageIds == null ? new int[0] : messageIds);
+    }
+
+    /**
+     * Διαγράφει όλα τα μηνύματα του χρήστη με κωδικό στο κλειστό διάστημα [fromId, toId]. <br>
+     * Όλες οι διαγραφές εκτελούνται με μία μόνο είσοδο στο κρίσιμο τμήμα του λογαριασμού και ένα πέρασμα της λίστας.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param fromId Ο μικρότερος κωδικός μηνύματος προς διαγραφή.
+     * @param toId Ο μεγαλύτερος κωδικός μηνύματος προς διαγραφή.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public BulkOperationResult deleteMessageRange(int authToken, int fromId, int toId) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.deleteMessageRange(fromId, toId);
+    }
+
+    /**
+     * Διαγράφει όλα τα διαβασμένα μηνύματα του χρήστη. <br>
+     * Όλες οι διαγραφές εκτελούνται με μία μόνο είσοδο στο κρίσιμο τμήμα του λογαριασμού και ένα πέρασμα της λίστας.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Το πλήθος των μηνυμάτων που διαγράφηκαν.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public BulkOperationResult deleteReadMessages(int authToken) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.deleteReadMessages();
+    }
+
+    /**
+     * Σημειώνει όλα τα μηνύματα του χρήστη ως διαβασμένα, με μία μόνο είσοδο στο κρίσιμο τμήμα του λογαριασμού.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @return Το πλήθος των μηνυμάτων που σημειώθηκαν ως διαβασμένα.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public BulkOperationResult markAllAsRead(int authToken) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.markAllAsRead();
+    }
+
+    /**
+     * Επιστρέφει τον αποστολέα και το περιεχόμενο των count παλαιότερων μη διαβασμένων μηνυμάτων του χρήστη και τα
+     * σημειώνει ως διαβασμένα, με μία μόνο είσοδο στο κρίσιμο τμήμα του λογαριασμού.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param count Το μέγιστο πλήθος μηνυμάτων προς ανάγνωση.
+     * @return Τα μηνύματα που διαβάστηκαν (κωδικός, αποστολέας και περιεχόμενο), από το παλαιότερο στο νεότερο.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public MessageView[] readOldestUnread(int authToken, int count) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.readOldestUnread(count);
+    }
+
+    /**
+     * Επιστρέφει τη λίστα με όλα τα μηνύματα του χρήστη, μόνο αν το γραμματοκιβώτιο έχει αλλάξει από την έκδοση
+     * lastSeenVersion. <br>
+     * Αν δεν έχει αλλάξει, η απάντηση περιέχει μόνο την έκδοση και η λίστα μηνυμάτων δε διατρέχεται καθόλου.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param lastSeenVersion Η έκδοση του γραμματοκιβωτίου από την τελευταία λήψη ή -1 αν δεν υπάρχει.
+     * @return Η τρέχουσα έκδοση του γραμματοκιβωτίου και, αν αυτό έχει αλλάξει, οι εγγραφές της λίστας μηνυμάτων.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public InboxSnapshot showInboxIfModified(int authToken, long lastSeenVersion) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.getInboxEntriesIfModified(lastSeenVersion);
+    }
+
+    /**
+     * Επιστρέφει μόνο τις μεταβολές του γραμματοκιβωτίου του χρήστη από την έκδοση sinceVersion (συγχρονισμός
+     * διαφορών με την τοπική cache του client). Αν αυτό δεν είναι δυνατό, επιστρέφεται ολόκληρη η λίστα μηνυμάτων.
+     *
+     * @param authToken Ο μοναδικός κωδικός αυθεντικοποίησης του χρήστη.
+     * @param sinceVersion Η έκδοση του γραμματοκιβωτίου από τον τελευταίο συγχρονισμό ή -1 αν δεν υπάρχει.
+     * @param highWaterMark Ο μεγαλύτερος κωδικός μηνύματος που έχει λάβει ο client ή -1 αν δεν υπάρχει.
+     * @return Οι μεταβολές του γραμματοκιβωτίου και η τρέχουσα έκδοσή του.
+     * @throws InvalidAuthTokenException Σε περίπτωση πού το authToken δεν αντιστοιχεί σε χρήστη.
+     */
+    @Override
+    public InboxDelta syncInbox(int authToken, long sinceVersion, int highWaterMark) throws RemoteException, InvalidAuthTokenException {
+        // Βρίσκω τον λογαριασμό του ζητούμενου χρήστη, ελέγχοντας ταυτόχρονα την εγκυρότητα του authToken.
+        Account thisUser = getValidUser(authToken);
+        if (thisUser == null){
+            throw new InvalidAuthTokenException();
+        }
+
+        return thisUser.syncInbox(sinceVersion, highWaterMark);
     }
 }
@@ -0,0 +1,136 @@
+package server;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Παρακολουθεί, σταδιακά και χωρίς να διατρέχει όλα τα αντικείμενα, τα αντικείμενα (π.χ. λογαριασμούς) με τις
+ * μεγαλύτερες τιμές μίας μετρικής (heavy hitters). <br>
+ *
+ * Διατηρείται ένα μικρό σύνολο υποψηφίων. Κάθε φορά που η μετρική ενός αντικειμένου αυξάνεται, αυτό "προτείνεται"
+ * (offer): αν η τιμή δεν ξεπερνά τη μικρότερη τιμή των υποψηφίων ή το αντικείμενο είναι ήδη υποψήφιο, η πρόταση
+ * απορρίπτεται χωρίς κλείδωμα. Διαφορετικά το αντικείμενο αντικαθιστά τον υποψήφιο με τη μικρότερη τιμή. Οι αναφορές
+ * ταξινομούν τους υποψηφίους με τις τρέχουσες τιμές της μετρικής. <br>
+ *
+ * Το αποτέλεσμα είναι προσέγγιση: αν οι τιμές των υποψηφίων μειωθούν, κάποιο αντικείμενο εκτός του συνόλου μπορεί να
+ * έχει μεγαλύτερη τιμή μέχρι να προταθεί ξανά. Για τον λόγο αυτό το σύνολο είναι αρκετά μεγαλύτερο από το πλήθος
+ * που εμφανίζεται στις αναφορές.
+ *
+ * @param <T> Ο τύπος των αντικειμένων.
+ * @author Ioannis Baraklilis
+ */
+public class HeavyHitters<T> {
+    /** Η μετρική με βάση την οποία κατατάσσονται τα αντικείμενα (διαβάζεται χωρίς κλείδωμα, οπότε είναι εκτίμηση). */
+    private final ToLongFunction<T> metric;
+
+    /** Το μέγιστο πλήθος υποψηφίων. */
+    private final int capacity;
+
+    /** Οι υποψήφιοι. Ελέγχεται χωρίς κλείδωμα, ενώ μεταβάλλεται μόνο εντός του κλειδώματος lock. */
+    private final Set<T> candidates = ConcurrentHashMap.newKeySet();
+
+    /** Η μικρότερη τιμή των υποψηφίων όταν το σύνολο είναι γεμάτο ή 0 αν δεν είναι. */
+    private volatile long threshold;
+
+    /** Το κλείδωμα που προστατεύει τις μεταβολές του συνόλου των υποψηφίων. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της HeavyHitters.
+     * @param metric Η μετρική με βάση την οποία κατατάσσονται τα αντικείμενα.
+     * @param capacity Το μέγιστο πλήθος υποψηφίων.
+     */
+    public HeavyHitters(ToLongFunction<T> metric, int capacity) {
+        if (capacity <= 0){
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.metric = metric;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Προτείνει το αντικείμενο item, του οποίου η μετρική μόλις αυξήθηκε στην τιμή value.
+     * @param item Το αντικείμενο.
+     * @param value Η νέα τιμή της μετρικής του.
+     */
+    public void offer(T item, long value) {
+        // Γρήγορη απόρριψη χωρίς κλείδωμα, που είναι και η συνηθισμένη περίπτωση.
+        if (value <= threshold || candidates.contains(item)){
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (candidates.contains(item)){
+                return;
+            }
+            if (candidates.size() < capacity){
+                candidates.add(item);
+            } else {
+                T smallest = smallestCandidate();
+                if (metric.applyAsLong(smallest) >= value){ // Το όριο είχε μειωθεί και απλά ενημερώνεται.
+                    threshold = metric.applyAsLong(smallest);
+                    return;
+                }
+                candidates.remove(smallest);
+                candidates.add(item);
+            }
+            if (candidates.size() == capacity){
+                threshold = metric.applyAsLong(smallestCandidate());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Επιστρέφει τα (έως) count αντικείμενα με τη μεγαλύτερη τρέχουσα τιμή της μετρικής, παραλείποντας όσα έχουν τιμή 0.
+     * @param count Το μέγιστο πλήθος αντικειμένων.
+     * @return Τα αντικείμενα με την τιμή της μετρικής τους, από αυτό με τη μεγαλύτερη τιμή.
+     */
+    public List<Map.Entry<T, Long>> top(int count) {
+        lock.lock();
+        try {
+            if (candidates.size() == capacity){ // Ενημέρωση του ορίου, αφού οι τιμές των υποψηφίων μπορεί να μειώθηκαν.
+                threshold = metric.applyAsLong(smallestCandidate());
+            }
+
+            // Οι τιμές διαβάζονται μία φορά πριν την ταξινόμηση, αφού μπορεί να μεταβάλλονται ταυτόχρονα.
+            List<Map.Entry<T, Long>> values = new ArrayList<>();
+            for (T candidate : candidates) {
+                long value = metric.applyAsLong(candidate);
+                if (value > 0){
+                    values.add(new AbstractMap.SimpleImmutableEntry<>(candidate, value));
+                }
+            }
+            values.sort(Map.Entry.<T, Long>comparingByValue().reversed());
+            return values.subList(0, Math.min(count, values.size()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Επιστρέφει τον υποψήφιο με τη μικρότερη τρέχουσα τιμή. Πρέπει να καλείται εντός του κλειδώματος lock, με μη κενό
+     * σύνολο υποψηφίων.
+     * @return Ο υποψήφιος με τη μικρότερη τιμή.
+     */
+    private T smallestCandidate() {
+        T smallest = null;
+        long smallestValue = Long.MAX_VALUE;
+        for (T candidate : candidates) {
+            long value = metric.applyAsLong(candidate);
+            if (value < smallestValue){
+                smallest = candidate;
+                smallestValue = value;
+            }
+        }
+        return smallest;
+    }
+}
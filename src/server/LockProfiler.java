@@ -0,0 +1,122 @@
+package server;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Συλλέγει και αναφέρει στατιστικά ανταγωνισμού (contention) για τις κατηγορίες κλειδωμάτων του εξυπηρετητή: το
+ * κλείδωμα του μητρώου λογαριασμών (ClientQueriesRemote) και τα κλειδώματα των γραμματοκιβωτίων (Account). <br>
+ *
+ * Η αναφορά είναι διαθέσιμη μέσω JMX (LockProfilerMBean) και μέσω της εντολής "locks" της κονσόλας του server. <br>
+ *
+ * Η καταγραφή είναι ενεργή εξ ορισμού, καθώς το κόστος της είναι πολύ μικρό (βλ. ProfiledLock), και μπορεί να
+ * απενεργοποιηθεί κατά τη λειτουργία μέσω JMX.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class LockProfiler implements LockProfilerMBean {
+    /** Τα στατιστικά του κλειδώματος του μητρώου λογαριασμών. */
+    static final LockStatistics REGISTRY_LOCK = new LockStatistics("registry lock");
+
+    /** Τα συγκεντρωτικά στατιστικά των κλειδωμάτων όλων των γραμματοκιβωτίων. */
+    static final LockStatistics MAILBOX_LOCKS = new LockStatistics("mailbox locks");
+
+    /** Το πλήθος των λογαριασμών που εμφανίζονται στη λίστα των πιο "καυτών". */
+    private static final int HOTTEST_ACCOUNTS = 10;
+
+    /** Υποδεικνύει αν η καταγραφή στατιστικών είναι ενεργή. */
+    private static volatile boolean enabled = true;
+
+    /** Το αντικείμενο του εξυπηρετητή, από το οποίο λαμβάνονται οι λογαριασμοί. */
+    private final ClientQueriesRemote clientQueries;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της LockProfiler.
+     * @param clientQueries Το αντικείμενο του εξυπηρετητή, από το οποίο λαμβάνονται οι λογαριασμοί.
+     */
+    public LockProfiler(ClientQueriesRemote clientQueries) {
+        this.clientQueries = clientQueries;
+    }
+
+    /**
+     * Υποδεικνύει αν η καταγραφή στατιστικών είναι ενεργή. Χρησιμοποιείται από τα ProfiledLock.
+     * @return true αν η καταγραφή είναι ενεργή.
+     */
+    static boolean isProfilingEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        LockProfiler.enabled = enabled;
+    }
+
+    @Override
+    public String getRegistryLock() {
+        return REGISTRY_LOCK.toString();
+    }
+
+    @Override
+    public String getMailboxLocks() {
+        return MAILBOX_LOCKS.toString();
+    }
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με τον μεγαλύτερο χρόνο αναμονής για το κλείδωμα του γραμματοκιβωτίου τους (και,
+     * σε ισοπαλία, με τις περισσότερες αποτυχημένες αποκτήσεις χωρίς αναμονή). <br>
+     * Οι λογαριασμοί διατρέχονται κατά την κλήση, οπότε το κόστος βαραίνει μόνο όποιον ζητάει την αναφορά.
+     * @return Οι λογαριασμοί (username, αναμονές, συνολικός χρόνος αναμονής και αποτυχημένα tryLock), από τον πιο "καυτό".
+     */
+    @Override
+    public String[] getHottestAccounts() {
+        Account[] hottest = Arrays.stream(clientQueries.getAccountsSnapshot())
+                .filter(a -> a.getMailboxLock().getContendedAcquisitions() > 0 || a.getMailboxLock().getFailedTryLocks() > 0)
+                .sorted(Comparator.comparingLong((Account a) -> a.getMailboxLock().getWaitNanos())
+                        .thenComparingLong(a -> a.getMailboxLock().getFailedTryLocks()).reversed())
+                .limit(HOTTEST_ACCOUNTS)
+                .toArray(Account[]::new);
+
+        String[] results = new String[hottest.length];
+        for (int i = 0; i < hottest.length; i++) {
+            ProfiledLock lock = hottest[i].getMailboxLock();
+            results[i] = String.format("%s: %d contended acquisitions, %d ms waiting, %d failed tryLocks",
+                    hottest[i].getUsername(), lock.getContendedAcquisitions(),
+                    TimeUnit.NANOSECONDS.toMillis(lock.getWaitNanos()), lock.getFailedTryLocks());
+        }
+        return results;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        report.append("Lock contention (profiling ").append(enabled ? "enabled" : "disabled").append("):")
+                .append(System.lineSeparator());
+        report.append("  ").append(REGISTRY_LOCK).append(System.lineSeparator());
+        report.append("  ").append(MAILBOX_LOCKS).append(System.lineSeparator());
+        report.append("Hottest accounts by mailbox lock wait time:").append(System.lineSeparator());
+        for (String account : getHottestAccounts()) {
+            report.append("  ").append(account).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Μηδενίζει τα συγκεντρωτικά στατιστικά και τα στοιχεία ανταγωνισμού κάθε κλειδώματος (μητρώου και
+     * γραμματοκιβωτίων), ώστε και η λίστα των πιο "καυτών" λογαριασμών να ξεκινά από την αρχή.
+     */
+    @Override
+    public void reset() {
+        REGISTRY_LOCK.reset();
+        MAILBOX_LOCKS.reset();
+        clientQueries.getRegistryLock().reset();
+        for (Account account : clientQueries.getAccountsSnapshot()) {
+            account.getMailboxLock().reset();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package server;
+
+/**
+ * Η διεπαφή διαχείρισης (JMX) του LockProfiler, μέσω της οποίας εμφανίζονται τα στατιστικά ανταγωνισμού των
+ * κλειδωμάτων του εξυπηρετητή (π.χ. στο jconsole).
+ *
+ * @author Ioannis Baraklilis
+ */
+public interface LockProfilerMBean {
+    /**
+     * Υποδεικνύει αν η καταγραφή στατιστικών ανταγωνισμού είναι ενεργή.
+     * @return true αν η καταγραφή είναι ενεργή.
+     */
+    boolean isEnabled();
+
+    /**
+     * Ενεργοποιεί ή απενεργοποιεί την καταγραφή στατιστικών ανταγωνισμού.
+     * @param enabled true για ενεργοποίηση.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Επιστρέφει τα στατιστικά του κλειδώματος του μητρώου λογαριασμών.
+     * @return Τα στατιστικά σε μορφή κειμένου.
+     */
+    String getRegistryLock();
+
+    /**
+     * Επιστρέφει τα συγκεντρωτικά στατιστικά των κλειδωμάτων όλων των γραμματοκιβωτίων.
+     * @return Τα στατιστικά σε μορφή κειμένου.
+     */
+    String getMailboxLocks();
+
+    /**
+     * Επιστρέφει τους λογαριασμούς με τον μεγαλύτερο χρόνο αναμονής για το κλείδωμα του γραμματοκιβωτίου τους.
+     * @return Οι λογαριασμοί (username, αναμονές, συνολικός χρόνος αναμονής και αποτυχημένα tryLock), από τον πιο "καυτό".
+     */
+    String[] getHottestAccounts();
+
+    /**
+     * Επιστρέφει πλήρη αναφορά των στατιστικών ανταγωνισμού.
+     * @return Η αναφορά σε μορφή κειμένου.
+     */
+    String dump();
+
+    /** Μηδενίζει τα συγκεντρωτικά στατιστικά ανταγωνισμού και τα στοιχεία κάθε κλειδώματος. */
+    void reset();
+}
@@ -0,0 +1,137 @@
+package server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Συγκεντρωτικά στατιστικά ανταγωνισμού (contention) για μία κατηγορία κλειδωμάτων του εξυπηρετητή, π.χ. για το
+ * κλείδωμα του μητρώου λογαριασμών ή για το σύνολο των κλειδωμάτων των γραμματοκιβωτίων. <br>
+ *
+ * Καταγράφονται οι αποκτήσεις του κλειδώματος, πόσες από αυτές χρειάστηκε να περιμένουν, ο συνολικός και ο μέγιστος
+ * χρόνος αναμονής, ο συνολικός χρόνος κατοχής και οι επιτυχημένες και αποτυχημένες αποκτήσεις χωρίς αναμονή (tryLock). Οι μετρητές ενημερώνονται χωρίς κλειδώματα (LongAdder).
+ *
+ * @author Ioannis Baraklilis
+ */
+public class LockStatistics {
+    /** Το όνομα της κατηγορίας κλειδωμάτων. */
+    private final String name;
+
+    /** Το πλήθος των (εξωτερικών, μη επαναλαμβανόμενων) αποκτήσεων του κλειδώματος. */
+    private final LongAdder acquisitions = new LongAdder();
+
+    /** Το πλήθος των αποκτήσεων που χρειάστηκε να περιμένουν επειδή το κλείδωμα κατεχόταν από άλλο νήμα. */
+    private final LongAdder contendedAcquisitions = new LongAdder();
+
+    /** Ο συνολικός χρόνος αναμονής για την απόκτηση του κλειδώματος (ns). */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /** Ο μέγιστος χρόνος αναμονής μίας απόκτησης του κλειδώματος (ns). */
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /** Ο συνολικός χρόνος κατοχής του κλειδώματος (ns). */
+    private final LongAdder holdNanos = new LongAdder();
+
+    /** Το πλήθος των (εξωτερικών) αποκτήσεων χωρίς αναμονή (tryLock), οι οποίες περιλαμβάνονται και στις acquisitions. */
+    private final LongAdder tryLocks = new LongAdder();
+
+    /** Το πλήθος των αποτυχημένων αποκτήσεων χωρίς αναμονή (tryLock), επειδή το κλείδωμα κατεχόταν από άλλο νήμα. */
+    private final LongAdder failedTryLocks = new LongAdder();
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της LockStatistics.
+     * @param name Το όνομα της κατηγορίας κλειδωμάτων.
+     */
+    public LockStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Καταγράφει μία απόκτηση του κλειδώματος.
+     * @param waitedNanos Ο χρόνος αναμονής (ns) ή 0 αν το κλείδωμα αποκτήθηκε αμέσως.
+     */
+    void recordAcquisition(long waitedNanos) {
+        acquisitions.increment();
+        if (waitedNanos > 0){
+            contendedAcquisitions.increment();
+            waitNanos.add(waitedNanos);
+            // Ενημέρωση του μεγίστου μόνο όταν χρειάζεται, ώστε να αποφεύγεται η εγγραφή στην κοινή μεταβλητή.
+            if (waitedNanos > maxWaitNanos.get()){
+                maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+            }
+        }
+    }
+
+    /** Καταγράφει μία επιτυχημένη απόκτηση του κλειδώματος χωρίς αναμονή (tryLock). */
+    void recordTryLock() {
+        acquisitions.increment();
+        tryLocks.increment();
+    }
+
+    /** Καταγράφει μία αποτυχημένη απόκτηση του κλειδώματος χωρίς αναμονή (tryLock). */
+    void recordFailedTryLock() {
+        failedTryLocks.increment();
+    }
+
+    /**
+     * Καταγράφει τον χρόνο κατοχής του κλειδώματος μετά την απελευθέρωσή του.
+     * @param heldNanos Ο χρόνος κατοχής (ns).
+     */
+    void recordHold(long heldNanos) {
+        holdNanos.add(heldNanos);
+    }
+
+    /** Μηδενίζει τα στατιστικά. */
+    void reset() {
+        acquisitions.reset();
+        contendedAcquisitions.reset();
+        waitNanos.reset();
+        maxWaitNanos.set(0);
+        holdNanos.reset();
+        tryLocks.reset();
+        failedTryLocks.reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long getHoldNanos() {
+        return holdNanos.sum();
+    }
+
+    public long getTryLocks() {
+        return tryLocks.sum();
+    }
+
+    public long getFailedTryLocks() {
+        return failedTryLocks.sum();
+    }
+
+    @Override
+    public String toString() {
+        long acquired = getAcquisitions();
+        long contended = getContendedAcquisitions();
+        return String.format("%s: %d acquisitions, %d contended (%.1f%%) | wait: %d ms total, %.3f ms max | " +
+                        "hold: %d ms total | tryLock: %d acquired, %d failed",
+                name, acquired, contended, acquired == 0 ? 0.0 : 100.0 * contended / acquired,
+                TimeUnit.NANOSECONDS.toMillis(getWaitNanos()), getMaxWaitNanos() / 1e6,
+                TimeUnit.NANOSECONDS.toMillis(getHoldNanos()), getTryLocks(), getFailedTryLocks());
+    }
+}
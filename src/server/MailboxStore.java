@@ -0,0 +1,378 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Διαχειρίζεται την κλιμακωτή αποθήκευση των γραμματοκιβωτίων: τα γραμματοκιβώτια των λογαριασμών που
+ * χρησιμοποιούνται πρόσφατα διατηρούνται στη μνήμη, μέσα σε ένα όριο μνήμης, ενώ τα "ψυχρά" γραμματοκιβώτια
+ * εκκενώνονται σε αρχεία στον τοπικό δίσκο και φορτώνονται ξανά (από τον ίδιο τον λογαριασμό) στην επόμενη πρόσβαση. <br>
+ *
+ * Η επιλογή των γραμματοκιβωτίων προς εκκένωση γίνεται με τον αλγόριθμο clock (προσέγγιση του LRU): κάθε πρόσβαση
+ * απλά σημειώνει τον λογαριασμό ως "πρόσφατα χρησιμοποιημένο" εντός του δικού του κλειδώματος, χωρίς κάποιο κοινό
+ * κλείδωμα, και η σάρωση δίνει δεύτερη ευκαιρία στους σημειωμένους λογαριασμούς. Η σάρωση γίνεται από ένα νήμα κάθε
+ * φορά και κλειδώνει τα υποψήφια γραμματοκιβώτια μόνο με tryLock, ώστε να μην περιμένει ποτέ λογαριασμούς που
+ * χρησιμοποιούνται. <br>
+ *
+ * Οι μετρητές του γραμματοκιβωτίου (πλήθος μηνυμάτων, έκδοση κλπ.) παραμένουν πάντα στη μνήμη, οπότε η σύνοψη του
+ * γραμματοκιβωτίου δε φορτώνει ποτέ τα μηνύματα από τον δίσκο. <br>
+ *
+ * Μορφή του αρχείου ενός γραμματοκιβωτίου: το πλήθος των μηνυμάτων και, για κάθε μήνυμα, ο κωδικός του, η κατάσταση
+ * ανάγνωσης, ο αποστολέας και το κείμενό του (μήκος και bytes σε UTF-8).
+ *
+ * @author Ioannis Baraklilis
+ */
+public class MailboxStore implements MailboxStoreMBean {
+    /** Η κατάληξη των αρχείων των γραμματοκιβωτίων. */
+    private static final String FILE_SUFFIX = ".mbox";
+
+    /** Το όριο μνήμης (bytes) για τα γραμματοκιβώτια που διατηρούνται στη μνήμη. */
+    private final long memoryBudget;
+
+    /** Ο φάκελος στον οποίο αποθηκεύονται τα αρχεία των γραμματοκιβωτίων που εκκενώνονται. */
+    private final Path spillDirectory;
+
+    /** Οι λογαριασμοί με γραμματοκιβώτιο στη μνήμη, με τη σειρά που τους επισκέπτεται η σάρωση (ο "δείκτης" του clock). */
+    private final ConcurrentLinkedQueue<Account> clock = new ConcurrentLinkedQueue<>();
+
+    /** Το πλήθος των λογαριασμών στο clock. */
+    private final AtomicInteger trackedMailboxes = new AtomicInteger();
+
+    /** Η εκτίμηση της μνήμης (bytes) που καταλαμβάνουν τα γραμματοκιβώτια που βρίσκονται στη μνήμη. */
+    private final AtomicLong residentBytes = new AtomicLong();
+
+    /** Εξασφαλίζει ότι η σάρωση για εκκένωση γίνεται από ένα μόνο νήμα κάθε φορά. */
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    /** Το πλήθος των προσβάσεων σε γραμματοκιβώτια που βρίσκονταν στη μνήμη. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Το πλήθος των προσβάσεων σε γραμματοκιβώτια που φορτώθηκαν από τον δίσκο. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Το πλήθος των εκκενώσεων γραμματοκιβωτίων. */
+    private final LongAdder evictions = new LongAdder();
+
+    /** Το πλήθος των εκκενώσεων που δε χρειάστηκε εγγραφή, αφού το αρχείο του δίσκου ήταν ήδη ενημερωμένο. */
+    private final LongAdder cleanEvictions = new LongAdder();
+
+    /** Το πλήθος των αποτυχημένων εκκενώσεων (σφάλμα εγγραφής στον δίσκο). */
+    private final LongAdder failedEvictions = new LongAdder();
+
+    /** Το συνολικό πλήθος bytes που γράφτηκαν στον δίσκο. */
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /** Το συνολικό πλήθος bytes που διαβάστηκαν από τον δίσκο. */
+    private final LongAdder bytesRead = new LongAdder();
+
+    /** Ο συνολικός χρόνος φόρτωσης γραμματοκιβωτίων από τον δίσκο (ns). */
+    private final LongAdder faultNanos = new LongAdder();
+
+    /** Ο μέγιστος χρόνος φόρτωσης ενός γραμματοκιβωτίου από τον δίσκο (ns). */
+    private final AtomicLong maxFaultNanos = new AtomicLong();
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της MailboxStore.
+     * @param memoryBudget Το όριο μνήμης (bytes) για τα γραμματοκιβώτια που διατηρούνται στη μνήμη.
+     * @param spillDirectory Ο φάκελος των αρχείων των γραμματοκιβωτίων. Δημιουργείται αν δεν υπάρχει.
+     * @throws IOException Σε περίπτωση αποτυχίας δημιουργίας του φακέλου.
+     */
+    public MailboxStore(long memoryBudget, Path spillDirectory) throws IOException {
+        if (memoryBudget <= 0){
+            throw new IllegalArgumentException("The memory budget must be positive.");
+        } else if (spillDirectory == null){
+            throw new IllegalArgumentException("The spillDirectory argument must not be null.");
+        }
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = Files.createDirectories(spillDirectory);
+    }
+
+    /**
+     * Επιστρέφει την εκτίμηση της μνήμης που καταλαμβάνει το μήνυμα m στο γραμματοκιβώτιο. Το περιεχόμενο μετράει
+     * πλήρως, ακόμα και αν είναι κοινό με άλλα μηνύματα, αφού μετά από εκκένωση και φόρτωση δεν είναι πλέον κοινό.
+     * Οι ίδιες εκτιμήσεις χρησιμοποιούνται και από τα CapacityStatistics.
+     * @param m Το μήνυμα.
+     * @return Η εκτίμηση της μνήμης (bytes).
+     */
+    static long estimateSize(Message m) {
+        return Message.HEAP_BYTES + m.getContent().estimateHeapBytes();
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Προσθέτει τον λογαριασμό account στους λογαριασμούς με γραμματοκιβώτιο στη μνήμη που επισκέπτεται η σάρωση.
+     * Καλείται από τον λογαριασμό, εντός του κλειδώματός του.
+     * @param account Ο λογαριασμός.
+     */
+    void track(Account account) {
+        trackedMailboxes.incrementAndGet();
+        clock.offer(account);
+    }
+
+    /**
+     * Ενημερώνει την εκτίμηση της μνήμης των γραμματοκιβωτίων που βρίσκονται στη μνήμη.
+     * @param delta Η μεταβολή (bytes).
+     */
+    void addResidentBytes(long delta) {
+        residentBytes.addAndGet(delta);
+    }
+
+    /** Καταγράφει μία πρόσβαση σε γραμματοκιβώτιο που βρισκόταν στη μνήμη. */
+    void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Καταγράφει τη φόρτωση ενός γραμματοκιβωτίου από τον δίσκο.
+     * @param nanos Ο χρόνος φόρτωσης (ns).
+     */
+    void recordFault(long nanos) {
+        misses.increment();
+        faultNanos.add(nanos);
+        if (nanos > maxFaultNanos.get()){
+            maxFaultNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Καταγράφει την εκκένωση ενός γραμματοκιβωτίου.
+     * @param written false αν δε χρειάστηκε εγγραφή επειδή το αρχείο του δίσκου ήταν ήδη ενημερωμένο.
+     */
+    void recordEviction(boolean written) {
+        evictions.increment();
+        if (!written){
+            cleanEvictions.increment();
+        }
+    }
+
+    /** Καταγράφει μία αποτυχημένη εκκένωση. */
+    void recordFailedEviction() {
+        failedEvictions.increment();
+    }
+
+    /**
+     * Επιστρέφει το αρχείο του γραμματοκιβωτίου του χρήστη username. <br>
+     * Το όνομα του αρχείου είναι τα bytes (UTF-8) του username σε δεκαεξαδική μορφή με πεζά, ώστε να είναι φορητό
+     * και μοναδικό ακόμα και σε συστήματα αρχείων χωρίς διάκριση πεζών-κεφαλαίων (π.χ. "Alice" και "alice").
+     * @param username Το όνομα του χρήστη.
+     * @return Το αρχείο του γραμματοκιβωτίου.
+     */
+    private Path fileOf(String username) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return spillDirectory.resolve(name.append(FILE_SUFFIX).toString());
+    }
+
+    /**
+     * Γράφει τα μηνύματα του γραμματοκιβωτίου του χρήστη username στο αρχείο του, αντικαθιστώντας το προηγούμενο
+     * περιεχόμενό του.
+     * @param username Το όνομα του χρήστη.
+     * @param messageBox Τα μηνύματα του γραμματοκιβωτίου.
+     * @throws IOException Σε περίπτωση αποτυχίας εγγραφής.
+     */
+    void writeMailbox(String username, List<Message> messageBox) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fileOf(username))))) {
+            out.writeInt(messageBox.size());
+            for (Message m : messageBox) {
+                out.writeInt(m.getId());
+                out.writeBoolean(m.isRead());
+                writeString(out, m.getSender());
+                writeString(out, m.getBody());
+            }
+            out.flush();
+            bytesWritten.add(out.size());
+        }
+    }
+
+    /**
+     * Διαβάζει τα μηνύματα του γραμματοκιβωτίου του χρήστη username από το αρχείο του. <br>
+     * Οι αποστολείς που επαναλαμβάνονται μοιράζονται το ίδιο αντικείμενο String.
+     * @param username Το όνομα του χρήστη (και παραλήπτης των μηνυμάτων).
+     * @return Τα μηνύματα του γραμματοκιβωτίου, με σειρά άφιξης.
+     * @throws IOException Σε περίπτωση αποτυχίας ανάγνωσης.
+     */
+    List<Message> readMailbox(String username) throws IOException {
+        Path file = fileOf(username);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int count = in.readInt();
+            List<Message> messageBox = new ArrayList<>(count);
+            HashMap<String, String> senders = new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                boolean isRead = in.readBoolean();
+                String sender = senders.computeIfAbsent(readString(in), s -> s);
+                messageBox.add(new Message(id, isRead, new SharedMessageBody(sender, readString(in)), username));
+            }
+
+            bytesRead.add(Files.size(file));
+            return messageBox;
+        }
+    }
+
+    /**
+     * Γράφει το κείμενο s ως μήκος και bytes σε UTF-8 (χωρίς το όριο των 64KB της writeUTF).
+     * @param out Η ροή εξόδου.
+     * @param s Το κείμενο ή null.
+     * @throws IOException Σε περίπτωση αποτυχίας εγγραφής.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null){
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Διαβάζει κείμενο που γράφτηκε με την writeString.
+     * @param in Η ροή εισόδου.
+     * @return Το κείμενο ή null.
+     * @throws IOException Σε περίπτωση αποτυχίας ανάγνωσης.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Εκκενώνει γραμματοκιβώτια στον δίσκο μέχρι η μνήμη τους να πέσει κάτω από το όριο. <br>
+     * Καλείται από τους λογαριασμούς μετά την απελευθέρωση του κλειδώματός τους. Αν η μνήμη είναι εντός ορίου ή κάποιο
+     * άλλο νήμα σαρώνει ήδη, επιστρέφει αμέσως. Κάθε λογαριασμός που έχει χρησιμοποιηθεί από την προηγούμενη σάρωση
+     * παίρνει δεύτερη ευκαιρία, ενώ όσοι χρησιμοποιούνται αυτή τη στιγμή παραλείπονται.
+     */
+    void evictIfOverBudget() {
+        if (residentBytes.get() <= memoryBudget || !sweepLock.tryLock()){
+            return;
+        }
+        try {
+            // Δύο περάσματα αρκούν ώστε να εξεταστεί κάθε λογαριασμός και μετά την αφαίρεση της δεύτερης ευκαιρίας του.
+            int remainingVisits = 2 * trackedMailboxes.get() + 1;
+
+            while (residentBytes.get() > memoryBudget && remainingVisits-- > 0) {
+                Account account = clock.poll();
+                if (account == null){
+                    break;
+                }
+
+                if (account.tryEvictMailbox()){
+                    clock.offer(account);
+                } else {
+                    trackedMailboxes.decrementAndGet();
+                }
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Διαγράφει τα αρχεία των γραμματοκιβωτίων. Καλείται κατά τον τερματισμό του server, αφού τα γραμματοκιβώτια δε
+     * διατηρούνται μεταξύ εκτελέσεων.
+     */
+    public void close() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e){
+            System.out.println("Could not clean up " + spillDirectory + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @Override
+    public long getResidentBytes() {
+        return residentBytes.get();
+    }
+
+    @Override
+    public int getResidentMailboxes() {
+        return trackedMailboxes.get();
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public double getAverageFaultMicros() {
+        long faults = getMisses();
+        return faults == 0 ? 0 : faultNanos.sum() / 1e3 / faults;
+    }
+
+    @Override
+    public double getMaxFaultMicros() {
+        return maxFaultNanos.get() / 1e3;
+    }
+
+    @Override
+    public String dump() {
+        long hitCount = getHits();
+        long accesses = hitCount + getMisses();
+        return String.format("Mailbox storage (spill directory %s):%n" +
+                        "  memory: %d KB resident of %d KB budget, %d mailboxes resident%n" +
+                        "  accesses: %d hits, %d misses (%.1f%% hit ratio)%n" +
+                        "  faults: %.1f us avg, %.1f us max, %d KB read%n" +
+                        "  evictions: %d total, %d clean, %d failed, %d KB written%n",
+                spillDirectory, getResidentBytes() / 1024, memoryBudget / 1024, getResidentMailboxes(),
+                hitCount, getMisses(), accesses == 0 ? 0.0 : 100.0 * hitCount / accesses,
+                getAverageFaultMicros(), getMaxFaultMicros(), bytesRead.sum() / 1024,
+                getEvictions(), cleanEvictions.sum(), failedEvictions.sum(), bytesWritten.sum() / 1024);
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        cleanEvictions.reset();
+        failedEvictions.reset();
+        bytesWritten.reset();
+        bytesRead.reset();
+        faultNanos.reset();
+        maxFaultNanos.set(0);
+    }
+}
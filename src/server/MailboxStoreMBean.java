@@ -0,0 +1,66 @@
+package server;
+
+/**
+ * Η διεπαφή διαχείρισης (JMX) του MailboxStore, μέσω της οποίας εμφανίζονται τα στατιστικά της κλιμακωτής
+ * αποθήκευσης των γραμματοκιβωτίων (π.χ. στο jconsole).
+ *
+ * @author Ioannis Baraklilis
+ */
+public interface MailboxStoreMBean {
+    /**
+     * Επιστρέφει το όριο μνήμης για τα γραμματοκιβώτια που διατηρούνται στη μνήμη.
+     * @return Το όριο μνήμης (bytes).
+     */
+    long getMemoryBudget();
+
+    /**
+     * Επιστρέφει την εκτίμηση της μνήμης που καταλαμβάνουν τα γραμματοκιβώτια που βρίσκονται στη μνήμη.
+     * @return Η εκτίμηση της μνήμης (bytes).
+     */
+    long getResidentBytes();
+
+    /**
+     * Επιστρέφει το πλήθος των γραμματοκιβωτίων που παρακολουθούνται για εκκένωση (δηλαδή βρίσκονται στη μνήμη).
+     * @return Το πλήθος των γραμματοκιβωτίων.
+     */
+    int getResidentMailboxes();
+
+    /**
+     * Επιστρέφει το πλήθος των προσβάσεων σε γραμματοκιβώτια που βρίσκονταν ήδη στη μνήμη.
+     * @return Το πλήθος των προσβάσεων.
+     */
+    long getHits();
+
+    /**
+     * Επιστρέφει το πλήθος των προσβάσεων σε γραμματοκιβώτια που χρειάστηκε να φορτωθούν από τον δίσκο.
+     * @return Το πλήθος των προσβάσεων.
+     */
+    long getMisses();
+
+    /**
+     * Επιστρέφει το πλήθος των γραμματοκιβωτίων που εκκενώθηκαν στον δίσκο.
+     * @return Το πλήθος των εκκενώσεων.
+     */
+    long getEvictions();
+
+    /**
+     * Επιστρέφει τον μέσο χρόνο φόρτωσης ενός γραμματοκιβωτίου από τον δίσκο.
+     * @return Ο μέσος χρόνος φόρτωσης (μs).
+     */
+    double getAverageFaultMicros();
+
+    /**
+     * Επιστρέφει τον μέγιστο χρόνο φόρτωσης ενός γραμματοκιβωτίου από τον δίσκο.
+     * @return Ο μέγιστος χρόνος φόρτωσης (μs).
+     */
+    double getMaxFaultMicros();
+
+    /**
+     * Επιστρέφει πλήρη αναφορά των στατιστικών της κλιμακωτής αποθήκευσης.
+     * @return Η αναφορά σε μορφή κειμένου.
+     */
+    String dump();
+
+    /** Μηδενίζει τα στατιστικά προσβάσεων, εκκενώσεων και χρόνων φόρτωσης. */
+    void reset();
+}
@@ -1,6 +1,7 @@
 package server;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Μοντελοποιεί την οντότητα ενός μηνύματος που μπορεί να αποστέλλεται, παραλαμβάνεται ή να είναι αποθηκευμένο στον
@@ -9,21 +10,28 @@ import java.io.Serializable;
  * @author Ioannis Baraklilis
  */
 public class Message implements Serializable {
-    /** Μετρητής μοναδικού κωδικού μηνυμάτων. */
-    private static int idCounter = -1;
+    /**
+     * Μετρητής μοναδικού κωδικού μηνυμάτων. <br>
+     * Είναι ατομικός, καθώς μηνύματα δημιουργούνται ταυτόχρονα σε διαφορετικά γραμματοκιβώτια (π.χ. κατά την αποστολή
+     * σε ομάδα), δηλαδή υπό διαφορετικά κλειδώματα.
+     */
+    private static final AtomicInteger idCounter = new AtomicInteger(-1);
+
+    /**
+     * Εκτίμηση της μνήμης (bytes) ενός αντικειμένου Message και της θέσης του στη λίστα του γραμματοκιβωτίου, χωρίς το
+     * (ενδεχομένως κοινό) περιεχόμενό του (βλ. SharedMessageBody.estimateHeapBytes).
+     */
+    static final long HEAP_BYTES = 40;
 
     /** Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί. */
     private boolean isRead;
 
-    /** Ο αποστολέας του μηνύματος. */
-    private String sender;
+    /** Το (ενδεχομένως κοινό με άλλα μηνύματα) περιεχόμενο του μηνύματος, δηλαδή ο αποστολέας και το κείμενό του. */
+    private SharedMessageBody content;
 
     /** Ο παραλήπτης του μηνύματος. */
     private String receiver;
 
-    /** Το κείμενο του μηνύματος. */
-    private String body;
-
     /** Ο μοναδικός κωδικός που αντιστοιχεί σε κάθε μήνυμα. */
     private int id;
 
@@ -35,18 +43,52 @@ public class Message implements Serializable {
      * @param body Το κείμενο του μηνύματος.
      */
     public Message(boolean isRead, String sender, String receiver, String body) {
-        id = ++idCounter;
-
-        this.isRead = isRead;
-
         // Ο αποστολέας και παραλήπτης δεν επιτρέπεται να έχει δοθεί ως όρισμα το null.
         if (sender == null || receiver == null){
             throw new IllegalArgumentException("The sender and receiver arguments must not be null.");
         }
-        this.sender = sender;
+
+        id = idCounter.incrementAndGet();
+        this.isRead = isRead;
+        this.content = new SharedMessageBody(sender, body);
+        this.receiver = receiver;
+    }
+
+    /**
+     * Κατασκευαστής της Message που αναφέρεται σε ήδη υπάρχον (κοινό) περιεχόμενο, χωρίς να το αντιγράφει.
+     * @param isRead Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί.
+     * @param content Το κοινό περιεχόμενο του μηνύματος (αποστολέας και κείμενο).
+     * @param receiver Ο παραλήπτης του μηνύματος.
+     */
+    public Message(boolean isRead, SharedMessageBody content, String receiver) {
+        // Το περιεχόμενο και ο παραλήπτης δεν επιτρέπεται να έχει δοθεί ως όρισμα το null.
+        if (content == null || receiver == null){
+            throw new IllegalArgumentException("The content and receiver arguments must not be null.");
+        }
+
+        id = idCounter.incrementAndGet();
+        this.isRead = isRead;
+        this.content = content;
         this.receiver = receiver;
+    }
+
+    /**
+     * Κατασκευαστής που αποκαθιστά ένα ήδη υπάρχον μήνυμα με τον κωδικό του, π.χ. κατά τη φόρτωση ενός
+     * γραμματοκιβωτίου από τον δίσκο (βλ. MailboxStore). Δε δεσμεύει νέο κωδικό.
+     * @param id Ο μοναδικός κωδικός του μηνύματος.
+     * @param isRead Υποδεικνύει αν το μήνυμα έχει ήδη διαβαστεί.
+     * @param content Το περιεχόμενο του μηνύματος (αποστολέας και κείμενο).
+     * @param receiver Ο παραλήπτης του μηνύματος.
+     */
+    Message(int id, boolean isRead, SharedMessageBody content, String receiver) {
+        if (content == null || receiver == null){
+            throw new IllegalArgumentException("The content and receiver arguments must not be null.");
+        }
 
-        this.body = body;
+        this.id = id;
+        this.isRead = isRead;
+        this.content = content;
+        this.receiver = receiver;
     }
 
     /**
@@ -60,9 +102,8 @@ public class Message implements Serializable {
 
         this.id = m.id;
         this.isRead = m.isRead;
-        this.sender = m.sender;
+        this.content = m.content;
         this.receiver = m.receiver;
-        this.body = m.body;
     }
 
     public boolean isRead() {
@@ -70,7 +111,7 @@ public class Message implements Serializable {
     }
 
     public String getSender() {
-        return sender;
+        return content.getSender();
     }
 
     public String getReceiver() {
@@ -78,7 +119,11 @@ public class Message implements Serializable {
     }
 
     public String getBody() {
-        return body;
+        return content.getBody();
+    }
+
+    public SharedMessageBody getContent() {
+        return content;
     }
 
     public int getId() {
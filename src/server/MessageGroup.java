@@ -0,0 +1,78 @@
+package server;
+
+import java.io.Serializable;
+
+/**
+ * Μοντελοποιεί μία ονομαστική ομάδα χρηστών (λίστα παραληπτών) που αποθηκεύεται στον εξυπηρετητή. <br>
+ *
+ * Ένα μήνυμα που αποστέλλεται στην ομάδα παραδίδεται σε όλα τα μέλη της, με το περιεχόμενό του να αποθηκεύεται μία
+ * μόνο φορά (βλ. SharedMessageBody). Μηνύματα στην ομάδα μπορούν να στέλνουν μόνο ο δημιουργός και τα μέλη της. <br>
+ *
+ * Τα μέλη διατηρούνται απευθείας ως αναφορές σε λογαριασμούς, ώστε η αποστολή να μη χρειάζεται αναζήτηση ανά μέλος.
+ * Αυτό είναι ασφαλές καθώς οι λογαριασμοί δεν διαγράφονται ποτέ από τον εξυπηρετητή.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class MessageGroup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Το όνομα της ομάδας. Αποτελείται μόνο από αλφαριθμητικά και τον ειδικό χαρακτήρα “_”. */
+    private final String name;
+
+    /** Το όνομα χρήστη του δημιουργού της ομάδας. */
+    private final String owner;
+
+    /** Οι λογαριασμοί των μελών της ομάδας (χωρίς επαναλήψεις). */
+    private final Account[] members;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της MessageGroup που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param name Το όνομα της ομάδας.
+     * @param owner Το όνομα χρήστη του δημιουργού της ομάδας.
+     * @param members Οι λογαριασμοί των μελών της ομάδας (χωρίς επαναλήψεις).
+     */
+    public MessageGroup(String name, String owner, Account[] members) {
+        if (name == null || owner == null || members == null){
+            throw new IllegalArgumentException("The name, owner and members arguments must not be null.");
+        }
+        this.name = name;
+        this.owner = owner;
+        this.members = members.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Επιστρέφει τους λογαριασμούς των μελών της ομάδας.
+     * Επειδή η ομάδα δεν μεταβάλλεται μετά τη δημιουργία της, ο πίνακας επιστρέφεται χωρίς αντιγραφή και δεν πρέπει να
+     * τροποποιείται από τον καλούντα.
+     * @return Οι λογαριασμοί των μελών της ομάδας.
+     */
+    Account[] getMembers() {
+        return members;
+    }
+
+    /**
+     * Ελέγχει αν ένας χρήστης μπορεί να στείλει μήνυμα στην ομάδα, δηλαδή αν είναι ο δημιουργός ή μέλος της.
+     * Ο έλεγχος διατρέχει τα μέλη, με κόστος ίδιας τάξης με την ίδια την παράδοση του μηνύματος.
+     * @param account Ο λογαριασμός του αποστολέα.
+     * @return true αν ο χρήστης είναι ο δημιουργός ή μέλος της ομάδας, αλλιώς false.
+     */
+    boolean canSend(Account account) {
+        if (owner.equals(account.getUsername())){
+            return true;
+        }
+        for (Account member : members) {
+            if (member == account){
+                return true;
+            }
+        }
+        return false;
+    }
+}
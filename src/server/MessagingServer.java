@@ -1,8 +1,29 @@
 package server;
 
+import common.SocketStatistics;
+import common.SocketTuning;
+import common.TunableClientSocketFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Μέσω αυτής της κλάσης υλοποιείται η αρχικοποίηση του RMI μέσω του οποίου γίνεται η επικοινωνία του εξυπηρετητή με τον χρήστη. <br>
@@ -14,6 +35,17 @@ import java.rmi.registry.Registry;
  * @author Ioannis Baraklilis
  */
 public class MessagingServer {
+    /** Περιέχει το κείμενο που περιγράφει τον ορθό τρόπο κλήσης αυτού του προγράμματος */
+    private final static String CORRECT_USAGE = "Correct use of server application call: java server <port number> [--option=value ...]";
+
+    /**
+     * Τα ονόματα των προαιρετικών ρυθμίσεων που δέχεται ο server ως ορίσματα της μορφής --όνομα=τιμή.
+     * Οι ρυθμίσεις των sockets περιγράφονται στην τεκμηρίωση της SocketTuning.
+     */
+    private final static Set<String> KNOWN_OPTIONS = new HashSet<>(Arrays.asList(
+            "tcpNoDelay", "sendBuffer", "receiveBuffer", "keepAlive", "idleTimeout", "streamBuffer", "statsInterval",
+            "memoryBudget", "spillDir", "importFile", "importOutput"));
+
     /**
      * Η μέθοδος εκκίνησης της διεπαφής του εξυπηρετητή με το πρόγραμμα. <br>
      *
@@ -21,10 +53,23 @@ public class MessagingServer {
      * να ανταποκριθεί σε αυτά χρησιμοποιώντας τον μηχανισμό RMI της διεπαφής ClientQueries.
      *
      * @param args Ορίσματα κλήσης του μέρους της εφαρμογής του Server. <br>
-     *             Αποτελείται μόνο από τον αριθμό του port στην οποία θα μπορεί να συνδεθεί ο χρήστης. <br>
+     *             Το πρώτο όρισμα είναι ο αριθμός του port στην οποία θα μπορεί να συνδεθεί ο χρήστης. <br>
      *             Άν δεν υπάρχει όρισμα ή αυτό δε βρίσκεται σε σωστή μορφή, εμφανίζεται κατάλληλο μήνυμα και γίνεται
      *             έξοδος από το πρόγραμμα. <br>
-     *             Άν υπάρχουν άνω του ενός ορίσματα, λαμβάνεται υπόψιν μόνο το πρώτο και τα υπόλοιπα αγνοούνται.
+     *             Τα υπόλοιπα ορίσματα είναι προαιρετικές ρυθμίσεις της μορφής --όνομα=τιμή:
+     *             <pre>
+     *               - tcpNoDelay, sendBuffer, receiveBuffer, keepAlive, idleTimeout, streamBuffer: Ρυθμίσεις των
+     *                 sockets του RMI (βλ. SocketTuning).
+     *               - statsInterval: Περίοδος (σε δευτερόλεπτα) εμφάνισης των στατιστικών των συνδέσεων.
+     *                 Τα στατιστικά εμφανίζονται πάντα και κατά τον τερματισμό του server.
+     *               - memoryBudget: Όριο μνήμης (σε KB) για τα γραμματοκιβώτια. Αν δοθεί, τα γραμματοκιβώτια που δεν
+     *                 έχουν χρησιμοποιηθεί πρόσφατα εκκενώνονται στον δίσκο (βλ. MailboxStore).
+     *               - spillDir: Ο φάκελος των γραμματοκιβωτίων που εκκενώνονται (εξ ορισμού ένας προσωρινός φάκελος).
+     *               - importFile: Αρχείο λογαριασμών και μηνυμάτων που εισάγονται πριν ο server δεχθεί αιτήματα
+     *                 (βλ. AccountImporter).
+     *               - importOutput: Το αρχείο στο οποίο γράφονται τα tokens των λογαριασμών που εισήχθησαν
+     *                 (εξ ορισμού το importFile με την κατάληξη .tokens).
+     *             </pre>
      */
     public static void main(String[] args) {
         try {
@@ -34,20 +79,71 @@ public class MessagingServer {
             try {
                 if (args.length < 1 ){
                     System.out.println("No port argument provided.");
-                    System.out.println("Correct use of server application call: java server <port number>");
+                    System.out.println(CORRECT_USAGE);
                     return;
                 }
                 portNumber = Integer.parseInt(args[0]);
             } catch (NumberFormatException e){
                 System.out.println("Invalid port number argument.");
-                System.out.println("Correct use of server application call: java server <port number>");
+                System.out.println(CORRECT_USAGE);
+                return;
+            }
+
+            // Λαμβάνω τις προαιρετικές ρυθμίσεις και δημιουργώ τα socket factories σύμφωνα με αυτές.
+            Map<String, String> options;
+            SocketTuning socketTuning;
+            int statsIntervalSeconds;
+            int memoryBudgetKilobytes;
+            try {
+                options = parseOptions(Arrays.copyOfRange(args, 1, args.length));
+                socketTuning = SocketTuning.fromOptions(options);
+                statsIntervalSeconds = parseIntOption(options, "statsInterval", 0);
+                memoryBudgetKilobytes = parseIntOption(options, "memoryBudget", 0);
+                if (memoryBudgetKilobytes < 0 || (memoryBudgetKilobytes == 0 && options.containsKey("memoryBudget"))){
+                    throw new IllegalArgumentException("Invalid memoryBudget option: " + memoryBudgetKilobytes +
+                            " (expected a positive number of kilobytes).");
+                }
+            } catch (IllegalArgumentException e){
+                System.out.println(e.getMessage());
+                System.out.println(CORRECT_USAGE);
                 return;
             }
+            TunableServerSocketFactory serverSocketFactory = new TunableServerSocketFactory(socketTuning);
+
+            // Δημιουργώ, αν ζητήθηκε, τον διαχειριστή της κλιμακωτής αποθήκευσης των γραμματοκιβωτίων.
+            MailboxStore mailboxStore = null;
+            if (memoryBudgetKilobytes > 0){
+                try {
+                    String spillDir = options.get("spillDir");
+                    mailboxStore = new MailboxStore(memoryBudgetKilobytes * 1024L,
+                            spillDir != null ? Paths.get(spillDir) : Files.createTempDirectory("messaging-mailboxes"));
+                } catch (IOException e){
+                    System.out.println("Could not create the mailbox spill directory: " + e.getMessage());
+                    return;
+                }
+            }
 
             // Δημιουργώ αντικείμενο στο οποίο ικανοποιούνται τα αιτήματα των clients.
             // Μέσω αυτού, υπάρχει μία λίστα από λογαριασμούς (Account), όπου διατηρούνται τα δεδομένα τους όπως καταχωρημένοι χρήστες,
             // οι κωδικοί τους και τα γραμματοκιβώτια τους.
-            ClientQueriesRemote clientQueries = new ClientQueriesRemote();
+            ClientQueriesRemote clientQueries = new ClientQueriesRemote(new TunableClientSocketFactory(socketTuning),
+                    serverSocketFactory, mailboxStore);
+
+            // Εισάγω, αν ζητήθηκε, λογαριασμούς από αρχείο πριν ο server γίνει διαθέσιμος στους clients.
+            String importFile = options.get("importFile");
+            if (importFile != null){
+                String importOutput = options.getOrDefault("importOutput", importFile + ".tokens");
+                try {
+                    AccountImporter.Result result = AccountImporter.importFile(clientQueries, Paths.get(importFile),
+                            Paths.get(importOutput));
+                    System.out.println("Imported " + importFile + ": " + result + " (tokens written to " + importOutput + ")");
+                } catch (IOException | IllegalArgumentException e){
+                    System.out.println("Could not import " + importFile + ": " + e.getMessage());
+                    // Το αντικείμενο έχει ήδη εξαχθεί και θα κρατούσε τη JVM σε λειτουργία.
+                    UnicastRemoteObject.unexportObject(clientQueries, true);
+                    return;
+                }
+            }
 
             // Δημιουργώ το RMI registry στο ζητούμενο port.
             Registry rmiRegistry = LocateRegistry.createRegistry(portNumber);
@@ -55,9 +151,151 @@ public class MessagingServer {
             // Καταχωρώ το ClientQueries στο registry και αντιστοιχίζεται στο όνομα "client_query_point"
             //  ώστε να μπορεί ο χρήστης να έχει πρόσβαση στο αντικείμενο.
             rmiRegistry.rebind("client_query_point", clientQueries);
+
+            // Καταχωρώ τον profiler των κλειδωμάτων στον MBean server της JVM, ώστε να είναι προσβάσιμος μέσω JMX.
+            LockProfiler lockProfiler = new LockProfiler(clientQueries);
+            registerMBean(lockProfiler, "server:type=LockProfiler");
+            CapacityStatistics capacityStatistics = new CapacityStatistics();
+            registerMBean(capacityStatistics, "server:type=CapacityStatistics");
+            if (mailboxStore != null){
+                registerMBean(mailboxStore, "server:type=MailboxStore");
+
+                // Τα αρχεία των γραμματοκιβωτίων δε χρειάζονται μετά τον τερματισμό του server.
+                MailboxStore storeToClose = mailboxStore;
+                Runtime.getRuntime().addShutdownHook(new Thread(storeToClose::close));
+            }
+
+            // Εκκίνηση της κονσόλας διαχείρισης για την εμφάνιση στατιστικών κατ' απαίτηση.
+            startAdminConsole(serverSocketFactory.getStatistics(), lockProfiler, mailboxStore, capacityStatistics);
+
+            // Εμφάνιση των στατιστικών των συνδέσεων κατά τον τερματισμό και, αν ζητήθηκε, περιοδικά.
+            SocketStatistics socketStatistics = serverSocketFactory.getStatistics();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Socket statistics: " + socketStatistics)));
+            if (statsIntervalSeconds > 0){
+                ScheduledExecutorService statsPrinter = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "socket-statistics");
+                    t.setDaemon(true);
+                    return t;
+                });
+                statsPrinter.scheduleAtFixedRate(() -> System.out.println("Socket statistics: " + socketStatistics),
+                        statsIntervalSeconds, statsIntervalSeconds, TimeUnit.SECONDS);
+            }
         } catch (RemoteException e) {
             System.out.println("Error: " + e.getMessage());
         }
     }
 
+    /**
+     * Μετατρέπει τα ορίσματα της μορφής --όνομα=τιμή σε ζεύγη όνομα-τιμή.
+     * @param optionArgs Τα ορίσματα των ρυθμίσεων.
+     * @return Τα ζεύγη όνομα-τιμή των ρυθμίσεων.
+     * @throws IllegalArgumentException Σε περίπτωση που κάποιο όρισμα δεν είναι σε σωστή μορφή ή δεν αντιστοιχεί σε
+     *                                  γνωστή ρύθμιση.
+     */
+    private static Map<String, String> parseOptions(String[] optionArgs) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : optionArgs) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0){
+                throw new IllegalArgumentException("Invalid option: " + arg + " (expected --option=value).");
+            }
+
+            String name = arg.substring(2, separator);
+            if (!KNOWN_OPTIONS.contains(name)){
+                throw new IllegalArgumentException("Invalid option: " + arg + " (unknown option " + name + ").");
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+
+    /**
+     * Επιστρέφει την τιμή της ρύθμισης name ως ακέραιο ή την defaultValue αν η ρύθμιση δεν έχει δοθεί.
+     * @param options Τα ζεύγη όνομα-τιμή των ρυθμίσεων.
+     * @param name Το όνομα της ρύθμισης.
+     * @param defaultValue Η προκαθορισμένη τιμή της ρύθμισης.
+     * @return Η τιμή της ρύθμισης.
+     * @throws IllegalArgumentException Σε περίπτωση που η τιμή δεν είναι ακέραιος.
+     */
+    private static int parseIntOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null){
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e){
+            throw new IllegalArgumentException("Invalid " + name + " option: " + value + " (expected an integer).");
+        }
+    }
+
+    /**
+     * Καταχωρεί το αντικείμενο mbean στον MBean server της JVM με το δοσμένο όνομα. <br>
+     * Σε περίπτωση αποτυχίας εμφανίζεται μήνυμα και ο server συνεχίζει να λειτουργεί κανονικά χωρίς JMX.
+     * @param mbean Το αντικείμενο προς καταχώρηση.
+     * @param name Το όνομα (ObjectName) του αντικειμένου.
+     */
+    private static void registerMBean(Object mbean, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(name));
+        } catch (JMException e){
+            System.out.println("Could not register " + name + " for JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Εκκινεί (σε ξεχωριστό νήμα) την κονσόλα διαχείρισης του server, η οποία διαβάζει εντολές από την standard είσοδο
+     * και εμφανίζει τα αντίστοιχα στατιστικά:
+     * <pre>
+     *   - sockets: Τα στατιστικά των συνδέσεων RMI.
+     *   - locks: Τα στατιστικά ανταγωνισμού των κλειδωμάτων.
+     *   - storage: Τα στατιστικά της κλιμακωτής αποθήκευσης των γραμματοκιβωτίων.
+     *   - capacity: Τα στατιστικά χωρητικότητας και μνήμης (λογαριασμοί, μηνύματα, μεγαλύτερα γραμματοκιβώτια).
+     *   - help: Τις διαθέσιμες εντολές.
+     * </pre>
+     * Αν η standard είσοδος δεν είναι διαθέσιμη (π.χ. ο server εκτελείται στο παρασκήνιο), η κονσόλα απλά τερματίζει.
+     * @param socketStatistics Τα στατιστικά των συνδέσεων RMI.
+     * @param lockProfiler Ο profiler των κλειδωμάτων.
+     * @param mailboxStore Ο διαχειριστής της κλιμακωτής αποθήκευσης ή null αν αυτή δεν είναι ενεργή.
+     * @param capacityStatistics Τα στατιστικά χωρητικότητας και μνήμης.
+     */
+    private static void startAdminConsole(SocketStatistics socketStatistics, LockProfiler lockProfiler,
+                                          MailboxStore mailboxStore, CapacityStatistics capacityStatistics) {
+        Thread console = new Thread(() -> {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            try {
+                String command;
+                while ((command = in.readLine()) != null) {
+                    switch (command.trim()){
+                        case "":
+                            break;
+                        case "sockets":
+                            System.out.println("Socket statistics: " + socketStatistics);
+                            break;
+                        case "locks":
+                            System.out.print(lockProfiler.dump());
+                            break;
+                        case "storage":
+                            System.out.print(mailboxStore != null ? mailboxStore.dump() :
+                                    String.format("Tiered mailbox storage is disabled (see --memoryBudget).%n"));
+                            break;
+                        case "capacity":
+                            System.out.print(capacityStatistics.dump());
+                            break;
+                        case "help":
+                            System.out.println("Available commands: sockets, locks, storage, capacity, help");
+                            break;
+                        default:
+                            System.out.println("Unknown command. Available commands: sockets, locks, storage, capacity, help");
+                    }
+                }
+            } catch (IOException e){
+                System.out.println("Admin console stopped: " + e.getMessage());
+            }
+        }, "admin-console");
+        console.setDaemon(true);
+        console.start();
+    }
 }
@@ -0,0 +1,136 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Κλείδωμα (ReentrantLock) που μετράει τον χρόνο αναμονής για την απόκτησή του και τον χρόνο κατοχής του. <br>
+ *
+ * Οι μετρήσεις καταγράφονται στα συγκεντρωτικά στατιστικά της κατηγορίας του κλειδώματος (LockStatistics), ενώ το
+ * κάθε κλείδωμα διατηρεί και τα δικά του στοιχεία ανταγωνισμού, ώστε να εντοπίζονται τα πιο "καυτά" αντικείμενα
+ * (π.χ. γραμματοκιβώτια). <br>
+ *
+ * Η απόκτηση δοκιμάζεται πρώτα χωρίς αναμονή (tryLock), οπότε στη συνηθισμένη περίπτωση χωρίς ανταγωνισμό το
+ * επιπλέον κόστος είναι μόνο δύο αναγνώσεις του ρολογιού για τον χρόνο κατοχής. Όταν ο profiler είναι
+ * απενεργοποιημένος (βλ. LockProfiler), δε γίνεται καμία μέτρηση. <br>
+ *
+ * Μετράται μόνο η εξωτερική (πρώτη) απόκτηση του κλειδώματος από ένα νήμα, όχι οι επαναλαμβανόμενες (reentrant).
+ * Μετρώνται και οι αποκτήσεις χωρίς αναμονή (tryLock), π.χ. της γρήγορης παράδοσης μηνυμάτων, καθώς και όσες από
+ * αυτές αποτυγχάνουν επειδή το κλείδωμα κατέχεται από άλλο νήμα. Οι εσωτερικές εργασίες του server (π.χ. η σάρωση
+ * εκκένωσης γραμματοκιβωτίων) χρησιμοποιούν την tryLockUnprofiled και δεν καταγράφονται.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class ProfiledLock extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    /** Τα συγκεντρωτικά στατιστικά της κατηγορίας του κλειδώματος. */
+    private final transient LockStatistics statistics;
+
+    /** Η χρονική στιγμή (ns) της τρέχουσας απόκτησης ή 0 αν δεν μετράται. Προσπελαύνεται μόνο από τον κάτοχο. */
+    private long acquiredAtNanos;
+
+    /** Το πλήθος των αποκτήσεων αυτού του κλειδώματος που χρειάστηκε να περιμένουν. Ενημερώνεται μόνο από τον κάτοχο. */
+    private volatile long contendedAcquisitions;
+
+    /** Ο συνολικός χρόνος αναμονής (ns) για αυτό το κλείδωμα. Ενημερώνεται μόνο από τον κάτοχο. */
+    private volatile long waitNanos;
+
+    /** Ατομική ενημέρωση του πεδίου failedTryLocks, το οποίο ενημερώνεται από νήματα που δεν κατέχουν το κλείδωμα. */
+    private static final AtomicLongFieldUpdater<ProfiledLock> FAILED_TRY_LOCKS =
+            AtomicLongFieldUpdater.newUpdater(ProfiledLock.class, "failedTryLocks");
+
+    /** Το πλήθος των αποτυχημένων αποκτήσεων χωρίς αναμονή (tryLock) αυτού του κλειδώματος. */
+    private volatile long failedTryLocks;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της ProfiledLock.
+     * @param statistics Τα συγκεντρωτικά στατιστικά της κατηγορίας του κλειδώματος.
+     */
+    public ProfiledLock(LockStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void lock() {
+        if (!LockProfiler.isProfilingEnabled()){
+            super.lock();
+            return;
+        }
+
+        // Δοκιμή απόκτησης χωρίς αναμονή. Μόνο αν αποτύχει μετράται ο χρόνος αναμονής.
+        long waited = 0;
+        if (!super.tryLock()){
+            long start = System.nanoTime();
+            super.lock();
+            waited = Math.max(1, System.nanoTime() - start);
+
+            // Το κλείδωμα κατέχεται πλέον από αυτό το νήμα, οπότε η ενημέρωση των πεδίων είναι ασφαλής.
+            contendedAcquisitions++;
+            waitNanos += waited;
+        }
+
+        // Μετράται μόνο η εξωτερική απόκτηση, όχι οι επαναλαμβανόμενες.
+        if (getHoldCount() == 1){
+            statistics.recordAcquisition(waited);
+            acquiredAtNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        boolean acquired = super.tryLock();
+        if (LockProfiler.isProfilingEnabled()){
+            if (!acquired){
+                FAILED_TRY_LOCKS.incrementAndGet(this);
+                statistics.recordFailedTryLock();
+            } else if (getHoldCount() == 1){
+                statistics.recordTryLock();
+                acquiredAtNanos = System.nanoTime();
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * Αποκτά το κλείδωμα χωρίς αναμονή και χωρίς να καταγράφεται η απόπειρα στα στατιστικά. Χρησιμοποιείται από
+     * εσωτερικές εργασίες (π.χ. τη σάρωση εκκένωσης γραμματοκιβωτίων), ώστε οι αποτυχίες τους να μην εμφανίζονται ως
+     * ανταγωνισμός μεταξύ clients. Ο χρόνος κατοχής επίσης δεν καταγράφεται.
+     * @return true αν το κλείδωμα αποκτήθηκε.
+     */
+    boolean tryLockUnprofiled() {
+        return super.tryLock();
+    }
+
+    @Override
+    public void unlock() {
+        // Στην απελευθέρωση της εξωτερικής απόκτησης καταγράφεται ο χρόνος κατοχής (αν μετρήθηκε η απόκτηση).
+        if (acquiredAtNanos != 0 && getHoldCount() == 1 && isHeldByCurrentThread()){
+            statistics.recordHold(System.nanoTime() - acquiredAtNanos);
+            acquiredAtNanos = 0;
+        }
+        super.unlock();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public long getFailedTryLocks() {
+        return failedTryLocks;
+    }
+
+    /**
+     * Μηδενίζει τα στοιχεία ανταγωνισμού αυτού του κλειδώματος. Γίνεται χωρίς απόκτηση του κλειδώματος, οπότε μία
+     * ταυτόχρονη καταγραφή μπορεί να χαθεί ή να διατηρηθεί.
+     */
+    void reset() {
+        contendedAcquisitions = 0;
+        waitNanos = 0;
+        failedTryLocks = 0;
+    }
+}
@@ -0,0 +1,82 @@
+package server;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Μοντελοποιεί το κοινό (αμετάβλητο) περιεχόμενο ενός μηνύματος, δηλαδή τον αποστολέα και το κείμενό του. <br>
+ *
+ * Σε περίπτωση αποστολής του ίδιου μηνύματος σε πολλούς παραλήπτες (ομάδα ή λίστα παραληπτών), το περιεχόμενο
+ * αποθηκεύεται μία μόνο φορά και κάθε γραμματοκιβώτιο διατηρεί ένα ελαφρύ αντικείμενο Message που απλά αναφέρεται σε
+ * αυτό, με τον δικό του κωδικό και τη δική του κατάσταση ανάγνωσης. <br>
+ *
+ * Το περιεχόμενο μετράει πόσα μηνύματα γραμματοκιβωτίων στη μνήμη αναφέρονται σε αυτό, ώστε τα στατιστικά χωρητικότητας
+ * (βλ. CapacityStatistics) να υπολογίζουν τη μνήμη του κάθε κειμένου μία μόνο φορά.
+ *
+ * @author Ioannis Baraklilis
+ */
+public final class SharedMessageBody implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Ο αποστολέας του μηνύματος. */
+    private final String sender;
+
+    /** Το κείμενο του μηνύματος. */
+    private final String body;
+
+    /** Εκτίμηση της μνήμης (bytes) του αντικειμένου και των δύο String του, πέρα από τους χαρακτήρες τους. */
+    private static final long OVERHEAD_BYTES = 64;
+
+    /** Ατομική ενημέρωση του πεδίου references, χωρίς ξεχωριστό αντικείμενο μετρητή για κάθε μήνυμα. */
+    private static final AtomicIntegerFieldUpdater<SharedMessageBody> REFERENCES =
+            AtomicIntegerFieldUpdater.newUpdater(SharedMessageBody.class, "references");
+
+    /** Το πλήθος των μηνυμάτων γραμματοκιβωτίων στη μνήμη που αναφέρονται στο περιεχόμενο. */
+    private transient volatile int references;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της SharedMessageBody που αρχικοποιεί τα πεδία σύμφωνα με τα ορίσματα.
+     * @param sender Ο αποστολέας του μηνύματος.
+     * @param body Το κείμενο του μηνύματος.
+     */
+    public SharedMessageBody(String sender, String body) {
+        // Ο αποστολέας δεν επιτρέπεται να έχει δοθεί ως όρισμα το null.
+        if (sender == null){
+            throw new IllegalArgumentException("The sender argument must not be null.");
+        }
+        this.sender = sender;
+        this.body = body;
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Επιστρέφει την εκτίμηση της μνήμης που καταλαμβάνει το περιεχόμενο (2 bytes ανά χαρακτήρα).
+     * @return Η εκτίμηση της μνήμης (bytes).
+     */
+    long estimateHeapBytes() {
+        return OVERHEAD_BYTES + 2L * (sender.length() + (body == null ? 0 : body.length()));
+    }
+
+    /**
+     * Καταγράφει ένα ακόμα μήνυμα γραμματοκιβωτίου στη μνήμη που αναφέρεται στο περιεχόμενο.
+     * @return true αν είναι το πρώτο τέτοιο μήνυμα.
+     */
+    boolean retain() {
+        return REFERENCES.incrementAndGet(this) == 1;
+    }
+
+    /**
+     * Καταγράφει ότι ένα μήνυμα γραμματοκιβωτίου στη μνήμη δεν αναφέρεται πλέον στο περιεχόμενο.
+     * @return true αν ήταν το τελευταίο τέτοιο μήνυμα.
+     */
+    boolean release() {
+        return REFERENCES.decrementAndGet(this) == 0;
+    }
+}
@@ -0,0 +1,88 @@
+package server;
+
+import common.CountingSocket;
+import common.SocketStatistics;
+import common.SocketTuning;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIServerSocketFactory;
+
+/**
+ * Το socket factory με το οποίο ο εξυπηρετητής δέχεται συνδέσεις προς το απομακρυσμένο αντικείμενο ClientQueriesRemote. <br>
+ *
+ * Κάθε σύνδεση που γίνεται δεκτή ρυθμίζεται σύμφωνα με το SocketTuning του server (συμπεριλαμβανομένου του χρόνου
+ * αδράνειας μετά τον οποίο κλείνει) και η χρήση της καταγράφεται στα στατιστικά του factory.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class TunableServerSocketFactory implements RMIServerSocketFactory {
+    /** Οι ρυθμίσεις των sockets. */
+    private final SocketTuning tuning;
+
+    /** Τα στατιστικά των συνδέσεων που γίνονται δεκτές. */
+    private final SocketStatistics statistics;
+
+    /**
+     * Ο προκαθορισμένος κατασκευαστής της TunableServerSocketFactory.
+     * @param tuning Οι ρυθμίσεις των sockets.
+     */
+    public TunableServerSocketFactory(SocketTuning tuning) {
+        if (tuning == null){
+            throw new IllegalArgumentException("The tuning argument must not be null.");
+        }
+        this.tuning = tuning;
+        this.statistics = new SocketStatistics();
+    }
+
+    public SocketStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket() {
+            @Override
+            public Socket accept() throws IOException {
+                CountingSocket socket = new CountingSocket(statistics, tuning.getStreamBufferSize());
+                implAccept(socket);
+                try {
+                    socket.applyTuning(tuning, true);
+                } catch (IOException e){
+                    socket.close();
+                    throw e;
+                }
+                socket.accepted();
+                return socket;
+            }
+        };
+
+        // Το μέγεθος του receive buffer πρέπει να οριστεί πριν το bind, ώστε να ισχύει για τις συνδέσεις που γίνονται
+        // δεκτές (ειδικά για μεγέθη άνω των 64KB).
+        if (tuning.getReceiveBufferSize() != null && tuning.getReceiveBufferSize() > 0){
+            serverSocket.setReceiveBufferSize(tuning.getReceiveBufferSize());
+        }
+        serverSocket.bind(new InetSocketAddress(port));
+        return serverSocket;
+    }
+
+    /**
+     * Δύο factories είναι ισοδύναμα (και το RMI μπορεί να μοιραστεί την ίδια port για αντικείμενα που εξάγονται με
+     * αυτά) αν έχουν τις ίδιες ρυθμίσεις και καταγράφουν στα ίδια στατιστικά.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || o.getClass() != getClass()){
+            return false;
+        }
+        TunableServerSocketFactory other = (TunableServerSocketFactory) o;
+        return tuning.equals(other.tuning) && statistics == other.statistics;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * tuning.hashCode() + System.identityHashCode(statistics);
+    }
+}
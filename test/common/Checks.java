@@ -0,0 +1,77 @@
+package common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Βοηθητικοί έλεγχοι για τα tests του project, τα οποία εκτελούνται ως απλά προγράμματα (μέθοδος main) χωρίς
+ * εξωτερικές βιβλιοθήκες. Κάθε αποτυχημένος έλεγχος προκαλεί AssertionError, οπότε το πρόγραμμα τερματίζει με σφάλμα.
+ *
+ * @author Ioannis Baraklilis
+ */
+public final class Checks {
+    private Checks() {
+    }
+
+    /**
+     * Ελέγχει ότι η συνθήκη ισχύει.
+     * @param condition Η συνθήκη.
+     * @param message Η περιγραφή του ελέγχου.
+     */
+    public static void check(boolean condition, String message) {
+        if (!condition){
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Ελέγχει ότι η τιμή actual ισούται με την αναμενόμενη.
+     * @param expected Η αναμενόμενη τιμή.
+     * @param actual Η πραγματική τιμή.
+     * @param message Η περιγραφή του ελέγχου.
+     */
+    public static void checkEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)){
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Ελέγχει ότι οι πίνακες ακεραίων έχουν τα ίδια στοιχεία με την ίδια σειρά.
+     * @param expected Ο αναμενόμενος πίνακας.
+     * @param actual Ο πραγματικός πίνακας.
+     * @param message Η περιγραφή του ελέγχου.
+     */
+    public static void checkEquals(int[] expected, int[] actual, String message) {
+        if (!Arrays.equals(expected, actual)){
+            throw new AssertionError(message + ": expected " + Arrays.toString(expected) + " but was " +
+                    Arrays.toString(actual));
+        }
+    }
+
+    /**
+     * Σειριοποιεί και αποσειριοποιεί το value μέσω των ροών αντικειμένων της Java, όπως γίνεται και στη μεταφορά του
+     * μέσω RMI.
+     * @param value Το αντικείμενο.
+     * @param <T> Ο τύπος του αντικειμένου.
+     * @return Το αντίγραφο που προκύπτει από την αποσειριοποίηση.
+     * @throws IOException Σε περίπτωση σφάλματος σειριοποίησης.
+     * @throws ClassNotFoundException Αν η κλάση του αντιγράφου δε βρεθεί.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T roundTrip(T value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+}
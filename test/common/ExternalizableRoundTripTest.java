@@ -0,0 +1,116 @@
+package common;
+
+import java.util.Arrays;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+import static common.Checks.roundTrip;
+
+/**
+ * Ελέγχει ότι τα αποτελέσματα του τυποποιημένου (typed) API διατηρούν όλα τα πεδία τους μετά από σειριοποίηση και
+ * αποσειριοποίηση (Externalizable), όπως κατά τη μεταφορά τους μέσω RMI.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class ExternalizableRoundTripTest {
+    public static void main(String[] args) throws Exception {
+        inboxSummary();
+        bulkOperationResult();
+        inboxEntry();
+        messageView();
+        inboxSnapshot();
+        inboxDelta();
+        System.out.println("ExternalizableRoundTripTest: OK");
+    }
+
+    private static void inboxSummary() throws Exception {
+        InboxSummary copy = roundTrip(new InboxSummary(12, 5, 41));
+        checkEquals(12, copy.getTotalMessages(), "InboxSummary total messages");
+        checkEquals(5, copy.getUnreadMessages(), "InboxSummary unread messages");
+        checkEquals(41, copy.getNewestMessageId(), "InboxSummary newest message id");
+
+        InboxSummary empty = roundTrip(new InboxSummary(0, 0, -1));
+        checkEquals(-1, empty.getNewestMessageId(), "InboxSummary of an empty mailbox");
+    }
+
+    private static void bulkOperationResult() throws Exception {
+        BulkOperationResult copy = roundTrip(new BulkOperationResult(3, new int[]{7, 9, 1000000}));
+        checkEquals(3, copy.getAffectedMessages(), "BulkOperationResult affected messages");
+        checkEquals(new int[]{7, 9, 1000000}, copy.getMissingMessageIds(), "BulkOperationResult missing ids");
+
+        BulkOperationResult none = roundTrip(new BulkOperationResult(0, null));
+        checkEquals(new int[0], none.getMissingMessageIds(), "BulkOperationResult without missing ids");
+        checkEquals("OK (0 messages)", none.toString(), "BulkOperationResult text form");
+    }
+
+    private static void inboxEntry() throws Exception {
+        InboxEntry unread = roundTrip(new InboxEntry(4, "Αλίκη_1", false));
+        checkEquals(4, unread.getMessageId(), "InboxEntry id");
+        checkEquals("Αλίκη_1", unread.getSender(), "InboxEntry non-ASCII sender");
+        check(!unread.isRead(), "InboxEntry unread flag");
+        checkEquals("4. from: Αλίκη_1*", unread.toString(), "InboxEntry text form");
+
+        InboxEntry read = roundTrip(new InboxEntry(5, "bob", true));
+        check(read.isRead(), "InboxEntry read flag");
+    }
+
+    private static void messageView() throws Exception {
+        MessageView copy = roundTrip(new MessageView(StatusCode.OK, 8, "bob", "hello\tthere\n"));
+        checkEquals(StatusCode.OK, copy.getStatus(), "MessageView status");
+        checkEquals(8, copy.getMessageId(), "MessageView id");
+        checkEquals("bob", copy.getSender(), "MessageView sender");
+        checkEquals("hello\tthere\n", copy.getBody(), "MessageView body");
+
+        // Κείμενο πέρα από το όριο των 64KB της writeUTF.
+        char[] chars = new char[70000];
+        Arrays.fill(chars, 'ω');
+        String longBody = new String(chars);
+        checkEquals(longBody, roundTrip(new MessageView(StatusCode.OK, 9, "bob", longBody)).getBody(),
+                "MessageView long body");
+
+        // Κενό κείμενο (null) σε επιτυχημένη ανάγνωση.
+        check(roundTrip(new MessageView(StatusCode.OK, 10, "bob", null)).getBody() == null, "MessageView null body");
+
+        MessageView missing = roundTrip(MessageView.notFound(11));
+        checkEquals(StatusCode.MESSAGE_DOES_NOT_EXIST, missing.getStatus(), "MessageView not found status");
+        checkEquals(11, missing.getMessageId(), "MessageView not found id");
+        check(missing.getSender() == null && missing.getBody() == null, "MessageView not found has no content");
+        checkEquals("Message ID does not exist", missing.toString(), "MessageView not found text form");
+    }
+
+    private static void inboxSnapshot() throws Exception {
+        InboxSnapshot copy = roundTrip(new InboxSnapshot(1L << 40, new InboxEntry[]{
+                new InboxEntry(1, "alice", true), new InboxEntry(2, "bob", false)}));
+        checkEquals(1L << 40, copy.getVersion(), "InboxSnapshot version");
+        check(copy.isModified(), "InboxSnapshot modified flag");
+        checkEquals(2, copy.getEntries().length, "InboxSnapshot entries");
+        checkEquals("2. from: bob*", copy.getEntries()[1].toString(), "InboxSnapshot entry");
+
+        InboxSnapshot empty = roundTrip(new InboxSnapshot(3, new InboxEntry[0]));
+        check(empty.isModified() && empty.getEntries().length == 0, "InboxSnapshot of an empty mailbox");
+
+        InboxSnapshot notModified = roundTrip(InboxSnapshot.notModified(7));
+        checkEquals(7L, notModified.getVersion(), "InboxSnapshot not modified version");
+        check(!notModified.isModified() && notModified.getEntries() == null, "InboxSnapshot not modified has no entries");
+    }
+
+    private static void inboxDelta() throws Exception {
+        InboxDelta copy = roundTrip(new InboxDelta(20, new InboxEntry[]{new InboxEntry(15, "carol", false)},
+                new int[]{3, 4}, new int[]{5}));
+        checkEquals(20L, copy.getVersion(), "InboxDelta version");
+        check(!copy.isFullResync(), "InboxDelta is not a full resync");
+        checkEquals(1, copy.getNewEntries().length, "InboxDelta new entries");
+        checkEquals(15, copy.getNewEntries()[0].getMessageId(), "InboxDelta new entry id");
+        checkEquals(new int[]{3, 4}, copy.getDeletedIds(), "InboxDelta deleted ids");
+        checkEquals(new int[]{5}, copy.getReadIds(), "InboxDelta read ids");
+
+        InboxDelta full = roundTrip(InboxDelta.fullResync(21, new InboxEntry[]{new InboxEntry(1, "bob", true)}));
+        check(full.isFullResync(), "InboxDelta full resync flag");
+        checkEquals("1. from: bob", full.getNewEntries()[0].toString(), "InboxDelta full resync entry");
+
+        InboxDelta notModified = roundTrip(InboxDelta.notModified(22));
+        checkEquals(22L, notModified.getVersion(), "InboxDelta not modified version");
+        check(notModified.getNewEntries().length == 0 && notModified.getDeletedIds().length == 0 &&
+                notModified.getReadIds().length == 0, "InboxDelta not modified has no changes");
+    }
+}
@@ -0,0 +1,130 @@
+package server;
+
+import common.BulkOperationResult;
+import common.InboxDelta;
+import common.InboxEntry;
+import common.InboxSummary;
+import common.MessageView;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει τις μαζικές λειτουργίες του γραμματοκιβωτίου (deleteMessages, deleteMessageRange, deleteReadMessages,
+ * markAllAsRead και readOldestUnread): τους κωδικούς που δε βρέθηκαν, τους μετρητές της σύνοψης (συμπεριλαμβανομένου
+ * του νεότερου μηνύματος μετά τη διαγραφή του τέλους της λίστας) και τις μεταβολές που καταγράφονται στο ημερολόγιο
+ * μεταβολών, όπως τις βλέπει η syncInbox.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class AccountBulkOperationsTest {
+    public static void main(String[] args) {
+        deletionsUpdateCountersAndChangeLog();
+        readsUpdateCountersAndChangeLog();
+        System.out.println("AccountBulkOperationsTest: OK");
+    }
+
+    private static void deletionsUpdateCountersAndChangeLog() {
+        Account account = new Account("bulk_delete", 1);
+        int[] ids = addMessages(account, 6);
+        InboxDelta before = account.syncInbox(-1, -1);
+        account.readMessage(ids[1]);
+        account.readMessage(ids[3]);
+
+        // Οι κωδικοί που δε βρέθηκαν επιστρέφονται ταξινομημένοι, ενώ ένας κωδικός που επαναλαμβάνεται μετράει μία φορά.
+        int missing = ids[5] + 1000;
+        BulkOperationResult byIds = account.deleteMessages(new int[]{missing, ids[5], ids[0], ids[5], -3});
+        checkEquals(2, byIds.getAffectedMessages(), "Messages deleted by id");
+        checkEquals(new int[]{-3, missing}, byIds.getMissingMessageIds(), "Missing ids");
+        checkSummary(account, 4, 2, ids[4], "After deleting by id");
+
+        BulkOperationResult byRange = account.deleteMessageRange(ids[4], missing);
+        checkEquals(1, byRange.getAffectedMessages(), "Messages deleted by range");
+        checkEquals(new int[0], byRange.getMissingMessageIds(), "A range reports no missing ids");
+        checkSummary(account, 3, 1, ids[3], "After deleting the tail by range");
+        checkEquals(0, account.deleteMessageRange(missing, missing + 10).getAffectedMessages(), "Empty range");
+
+        InboxDelta deletions = account.syncInbox(before.getVersion(), ids[5]);
+        check(!deletions.isFullResync(), "Delta after bulk deletions");
+        checkEquals(new int[]{ids[0], ids[5], ids[4]}, deletions.getDeletedIds(), "Logged deletions");
+        checkEquals(new int[]{ids[1], ids[3]}, deletions.getReadIds(), "Logged reads");
+        checkEquals(0, deletions.getNewEntries().length, "No new entries");
+
+        checkEquals(2, account.deleteReadMessages().getAffectedMessages(), "Read messages deleted");
+        checkSummary(account, 1, 1, ids[2], "After deleting the read messages");
+        InboxDelta readDeletions = account.syncInbox(deletions.getVersion(), ids[5]);
+        checkEquals(new int[]{ids[1], ids[3]}, readDeletions.getDeletedIds(), "Logged deletions of read messages");
+        checkEquals(new int[0], readDeletions.getReadIds(), "No reads logged by a deletion");
+
+        checkEquals(0, account.deleteReadMessages().getAffectedMessages(), "No read messages left");
+        checkEquals(1, account.deleteMessageRange(ids[0], ids[5]).getAffectedMessages(), "Last message deleted");
+        checkSummary(account, 0, 0, -1, "Empty mailbox");
+    }
+
+    private static void readsUpdateCountersAndChangeLog() {
+        Account account = new Account("bulk_read", 2);
+        int[] ids = addMessages(account, 3);
+        InboxDelta before = account.syncInbox(-1, -1);
+        int[] newer = addMessages(account, 2);
+
+        // Τα παλαιότερα μη διαβασμένα μηνύματα διαβάζονται με σειρά άφιξης, παραλείποντας τα ήδη διαβασμένα.
+        account.readMessage(ids[0]);
+        MessageView[] oldest = account.readOldestUnread(3);
+        checkEquals(3, oldest.length, "Oldest unread messages");
+        checkEquals(new int[]{ids[1], ids[2], newer[0]}, idsOf(oldest), "Oldest unread ids");
+        checkEquals("message 1", oldest[0].getBody(), "Body of the oldest unread message");
+        checkSummary(account, 5, 1, newer[1], "After reading the oldest unread");
+
+        BulkOperationResult marked = account.markAllAsRead();
+        checkEquals(1, marked.getAffectedMessages(), "Messages marked as read");
+        checkSummary(account, 5, 0, newer[1], "After marking all as read");
+        checkEquals(0, account.markAllAsRead().getAffectedMessages(), "Nothing left to mark");
+        checkEquals(0, account.readOldestUnread(10).length, "Nothing left to read");
+
+        // Οι αναγνώσεις μηνυμάτων που ο client γνωρίζει καταγράφονται, ενώ τα νεότερα αποστέλλονται ολόκληρα.
+        InboxDelta delta = account.syncInbox(before.getVersion(), ids[2]);
+        check(!delta.isFullResync(), "Delta after bulk reads");
+        checkEquals(new int[]{ids[0], ids[1], ids[2]}, delta.getReadIds(), "Logged reads");
+        checkEquals(new int[0], delta.getDeletedIds(), "No deletions logged by a read");
+        checkEquals(2, delta.getNewEntries().length, "New entries");
+        check(delta.getNewEntries()[0].isRead() && delta.getNewEntries()[1].isRead(), "New entries are read");
+
+        // Η επόμενη markAllAsRead δεν αλλάζει την έκδοση, αφού δε σημειώνει κανένα μήνυμα.
+        account.markAllAsRead();
+        InboxDelta unchanged = account.syncInbox(delta.getVersion(), newer[1]);
+        checkEquals(delta.getVersion(), unchanged.getVersion(), "Marking an all-read mailbox keeps the version");
+        checkEquals(new int[0], unchanged.getReadIds(), "Marking an all-read mailbox logs nothing");
+    }
+
+    /**
+     * Προσθέτει count μηνύματα με περιεχόμενο "message i" στο γραμματοκιβώτιο του account.
+     * @return Οι κωδικοί των νέων μηνυμάτων, με σειρά άφιξης.
+     */
+    private static int[] addMessages(Account account, int count) {
+        int existing = account.getInboxSummary().getTotalMessages();
+        for (int i = 0; i < count; i++) {
+            account.addMessageInMessageBox("bob", "message " + i);
+        }
+        InboxEntry[] entries = account.getInboxEntries();
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = entries[existing + i].getMessageId();
+        }
+        return ids;
+    }
+
+    private static void checkSummary(Account account, int total, int unread, int newestId, String step) {
+        InboxSummary summary = account.getInboxSummary();
+        checkEquals(total, summary.getTotalMessages(), step + ": total messages");
+        checkEquals(unread, summary.getUnreadMessages(), step + ": unread messages");
+        checkEquals(newestId, summary.getNewestMessageId(), step + ": newest message id");
+    }
+
+    private static int[] idsOf(MessageView[] views) {
+        int[] ids = new int[views.length];
+        for (int i = 0; i < views.length; i++) {
+            ids[i] = views[i].getMessageId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,200 @@
+package server;
+
+import common.InvalidAuthTokenException;
+import common.MessageView;
+import common.StatusCode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει τη μαζική δημιουργία λογαριασμών (ClientQueriesRemote.createAccounts) και την εισαγωγή λογαριασμών από
+ * αρχείο (AccountImporter): usernames που επαναλαμβάνονται ή ήδη υπάρχουν απορρίπτονται χωρίς να μένουν στα
+ * στατιστικά χωρητικότητας, υποψήφια tokens που είναι ήδη δεσμευμένα αντικαθίστανται, ενώ οι γραμμές του αρχείου
+ * εισόδου και οι ακολουθίες \t, \n και \\ των μηνυμάτων διαβάζονται σωστά.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class AccountCreationTest {
+    private static final CapacityStatistics STATISTICS = new CapacityStatistics();
+
+    public static void main(String[] args) throws IOException, InvalidAuthTokenException {
+        duplicateAndExistingUsernamesAreRejected();
+        collidingTokensAreReplaced();
+        importFileParsesAccountsAndMessages();
+        invalidImportLineCreatesNoAccounts();
+        System.out.println("AccountCreationTest: OK");
+    }
+
+    /**
+     * Γεννήτρια "τυχαίων" αριθμών που επιστρέφει πρώτα τις δοσμένες τιμές, ώστε να προκαλούνται συγκρούσεις tokens.
+     */
+    private static final class ScriptedRandom extends Random {
+        private static final long serialVersionUID = 1L;
+
+        private final Deque<Integer> values = new ArrayDeque<>();
+
+        ScriptedRandom(int... values) {
+            for (int value : values) {
+                this.values.add(value);
+            }
+        }
+
+        @Override
+        public int nextInt() {
+            Integer value = values.poll();
+            return value != null ? value : super.nextInt();
+        }
+    }
+
+    private static void duplicateAndExistingUsernamesAreRejected() throws IOException, InvalidAuthTokenException {
+        ClientQueriesRemote queries = new ClientQueriesRemote(null, null, null, new Random());
+        try {
+            String existingToken = queries.createAccount("existing");
+            long accounts = STATISTICS.getAccounts();
+            long messages = STATISTICS.getMessages();
+            long heapMessages = CapacityStatistics.heapMessages();
+            long mailboxBytes = STATISTICS.getMailboxBytes();
+
+            SharedMessageBody welcome = new SharedMessageBody("admin", "welcome");
+            ClientQueriesRemote.AccountCreation[] results = queries.createAccounts(
+                    new String[]{"fresh", "fresh", "existing", "not valid"},
+                    Map.of("fresh", List.of(welcome), "existing", List.of(welcome, welcome)));
+            checkEquals(StatusCode.OK, results[0].getStatus(), "First occurrence of a username");
+            checkEquals(StatusCode.USER_ALREADY_EXISTS, results[1].getStatus(), "Username repeated within the batch");
+            checkEquals(StatusCode.USER_ALREADY_EXISTS, results[2].getStatus(), "Username already registered");
+            checkEquals(StatusCode.INVALID_USERNAME, results[3].getStatus(), "Invalid username");
+            checkEquals(StatusCode.USER_ALREADY_EXISTS.getDescription(), results[1].toString(), "Text of a rejection");
+            checkEquals(String.valueOf(results[0].getAuthToken()), results[0].toString(), "Text of a new token");
+
+            // Μόνο ο νέος λογαριασμός και το μήνυμά του παραμένουν στα στατιστικά· ο απορριφθείς υποψήφιος αναιρείται.
+            checkEquals(1L, STATISTICS.getAccounts() - accounts, "Accounts after the batch");
+            checkEquals(1L, STATISTICS.getMessages() - messages, "Messages after the batch");
+            checkEquals(1L, CapacityStatistics.heapMessages() - heapMessages, "Messages in memory after the batch");
+            checkEquals(MailboxStore.estimateSize(new Message(false, welcome, "fresh")),
+                    STATISTICS.getMailboxBytes() - mailboxBytes, "Mailbox bytes after the batch");
+
+            // Ο υπάρχων λογαριασμός δεν επηρεάζεται και ο νέος λαμβάνει το αρχικό του γραμματοκιβώτιο.
+            checkEquals(0, queries.showInboxEntries(Integer.parseInt(existingToken)).length,
+                    "Inbox of the existing account");
+            checkEquals(1, queries.showInboxEntries(results[0].getAuthToken()).length, "Inbox of the new account");
+
+            // Το RMI API επιστρέφει κενό αποτέλεσμα για null και "Invalid Username" για null usernames.
+            checkEquals(0, queries.createAccounts(null).length, "Results for a null array");
+            String[] texts = queries.createAccounts(new String[]{null});
+            checkEquals(1, texts.length, "Results for a null username");
+            checkEquals(StatusCode.INVALID_USERNAME.getDescription(), texts[0], "Result for a null username");
+        } finally {
+            UnicastRemoteObject.unexportObject(queries, true);
+        }
+    }
+
+    private static void collidingTokensAreReplaced() throws IOException, InvalidAuthTokenException {
+        // 7: το token του υπάρχοντος λογαριασμού. 7, 9, 9, 10: υποψήφια tokens του batch, όπου το 7 είναι δεσμευμένο
+        // και το δεύτερο 9 επαναλαμβάνεται. 10, 7, 11: η αντικατάσταση του 7, όπου το 10 ανήκει ήδη στο batch.
+        ClientQueriesRemote queries = new ClientQueriesRemote(null, null, null,
+                new ScriptedRandom(7, 7, 9, 9, 10, 10, 7, 11));
+        try {
+            checkEquals("7", queries.createAccount("holder"), "Token of the existing account");
+            ClientQueriesRemote.AccountCreation[] results =
+                    queries.createAccounts(new String[]{"first", "second", "third"}, Map.of());
+            checkEquals(StatusCode.OK, results[0].getStatus(), "Account with a colliding candidate token");
+            checkEquals(11, results[0].getAuthToken(), "Replacement of a registered token");
+            checkEquals(9, results[1].getAuthToken(), "Candidate token without collision");
+            checkEquals(10, results[2].getAuthToken(), "Candidate token repeated within the batch");
+
+            // Κάθε token αντιστοιχεί στον σωστό λογαριασμό.
+            queries.sendMessage(7, "first", "to first");
+            checkEquals(1, queries.showInboxEntries(11).length, "Inbox reached through the replaced token");
+            checkEquals(0, queries.showInboxEntries(7).length, "Inbox of the existing account");
+        } finally {
+            UnicastRemoteObject.unexportObject(queries, true);
+        }
+    }
+
+    private static void importFileParsesAccountsAndMessages() throws IOException, InvalidAuthTokenException {
+        Path input = Files.createTempFile("account-import-test", ".tsv");
+        Path output = Files.createTempFile("account-import-test", ".tokens");
+        ClientQueriesRemote queries = new ClientQueriesRemote(null, null, null, new Random());
+        try {
+            Files.write(input, List.of(
+                    "# comment",
+                    "A\talice",
+                    "",
+                    "A\tbob",
+                    "A\talice",
+                    "A\tnot valid",
+                    "M\talice\tbob\ttab\\there",
+                    "M\talice\tcarol\tline\\nbreak and back\\\\slash, \\x unknown",
+                    "M\tbob\talice\tplain text"), StandardCharsets.UTF_8);
+            AccountImporter.Result result = AccountImporter.importFile(queries, input, output);
+            checkEquals("2 accounts created, 2 failed, 3 messages imported", result.toString(), "Import result");
+
+            List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+            checkEquals(4, lines.size(), "One output line per account line");
+            check(lines.get(0).matches("alice\t[0-9]+"), "Token of alice: " + lines.get(0));
+            check(lines.get(1).matches("bob\t[0-9]+"), "Token of bob: " + lines.get(1));
+            checkEquals("alice\t" + StatusCode.USER_ALREADY_EXISTS.getDescription(), lines.get(2),
+                    "Repeated account line");
+            checkEquals("not valid\t" + StatusCode.INVALID_USERNAME.getDescription(), lines.get(3),
+                    "Invalid account line");
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")){
+                checkEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(output)),
+                        "Permissions of the output file");
+            }
+
+            int aliceToken = Integer.parseInt(lines.get(0).substring("alice\t".length()));
+            int[] ids = {queries.showInboxEntries(aliceToken)[0].getMessageId(),
+                    queries.showInboxEntries(aliceToken)[1].getMessageId()};
+            MessageView first = queries.readMessageView(aliceToken, ids[0]);
+            checkEquals("bob", first.getSender(), "Sender of an imported message");
+            checkEquals("tab\there", first.getBody(), "Escaped tab");
+            MessageView second = queries.readMessageView(aliceToken, ids[1]);
+            checkEquals("carol", second.getSender(), "Sender that is not an account");
+            checkEquals("line\nbreak and back\\slash, \\x unknown", second.getBody(),
+                    "Escaped line break and backslash, unknown sequence kept");
+        } finally {
+            UnicastRemoteObject.unexportObject(queries, true);
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static void invalidImportLineCreatesNoAccounts() throws IOException {
+        Path input = Files.createTempFile("account-import-test", ".tsv");
+        Path output = input.resolveSibling(input.getFileName() + ".tokens");
+        ClientQueriesRemote queries = new ClientQueriesRemote(null, null, null, new Random());
+        try {
+            for (List<String> file : List.of(List.of("A\tdave", "M\tnobody\tdave\thello"),
+                    List.of("A\tdave", "X\tdave"), List.of("A\tdave", "M\tdave\tonly sender"))) {
+                Files.write(input, file, StandardCharsets.UTF_8);
+                boolean rejected = false;
+                try {
+                    AccountImporter.importFile(queries, input, output);
+                } catch (IllegalArgumentException e){
+                    rejected = true;
+                }
+                check(rejected, "Invalid line is rejected: " + file.get(1));
+                checkEquals(0, queries.getAccountsSnapshot().length, "No accounts after " + file.get(1));
+                check(!Files.exists(output), "No output file after " + file.get(1));
+            }
+        } finally {
+            UnicastRemoteObject.unexportObject(queries, true);
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package server;
+
+import common.InboxDelta;
+import common.InboxEntry;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει τον συγχρονισμό διαφορών του γραμματοκιβωτίου (Account.syncInbox): την απάντηση χωρίς μεταβολές, τις
+ * διαφορές από μία γνωστή έκδοση και την επιστροφή σε πλήρη συγχρονισμό όταν η έκδοση του client είναι άκυρη ή
+ * παλαιότερη από το ημερολόγιο μεταβολών.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class AccountSyncInboxTest {
+    public static void main(String[] args) {
+        deltaSinceKnownVersion();
+        invalidVersionFallsBackToFullResync();
+        changeLogFloor();
+        System.out.println("AccountSyncInboxTest: OK");
+    }
+
+    private static void deltaSinceKnownVersion() {
+        Account account = new Account("sync_delta", 1);
+        for (int i = 0; i < 3; i++) {
+            account.addMessageInMessageBox("bob", "message " + i);
+        }
+
+        InboxDelta full = account.syncInbox(-1, -1);
+        check(full.isFullResync(), "A client without a version gets a full resync");
+        checkEquals(3, full.getNewEntries().length, "Full resync entries");
+        int[] ids = idsOf(full.getNewEntries());
+        long version = full.getVersion();
+        int highWaterMark = ids[2];
+
+        InboxDelta unchanged = account.syncInbox(version, highWaterMark);
+        check(!unchanged.isFullResync(), "Unchanged mailbox is not a full resync");
+        checkEquals(version, unchanged.getVersion(), "Unchanged mailbox version");
+        check(unchanged.getNewEntries().length == 0 && unchanged.getDeletedIds().length == 0 &&
+                unchanged.getReadIds().length == 0, "Unchanged mailbox has no changes");
+
+        account.readMessage(ids[0]);
+        account.deleteMessage(ids[1]);
+        account.addMessageInMessageBox("carol", "new");
+
+        InboxDelta delta = account.syncInbox(version, highWaterMark);
+        check(!delta.isFullResync(), "Delta since a logged version");
+        checkEquals(new int[]{ids[0]}, delta.getReadIds(), "Read ids");
+        checkEquals(new int[]{ids[1]}, delta.getDeletedIds(), "Deleted ids");
+        checkEquals(1, delta.getNewEntries().length, "New entries");
+        checkEquals("carol", delta.getNewEntries()[0].getSender(), "New entry sender");
+        check(!delta.getNewEntries()[0].isRead(), "New entry is unread");
+        check(delta.getVersion() > version, "Delta carries the new version");
+
+        // Οι μεταβολές σε μηνύματα που ο client δε γνωρίζει δεν αναφέρονται χωριστά: τα μηνύματα αυτά αποστέλλονται
+        // ολόκληρα, με την τρέχουσα κατάστασή τους (το διαγραμμένο μήνυμα απλά λείπει).
+        InboxDelta partial = account.syncInbox(version, ids[0]);
+        checkEquals(new int[]{ids[0]}, partial.getReadIds(), "Read ids up to the high-water mark");
+        checkEquals(new int[0], partial.getDeletedIds(), "Deleted ids above the high-water mark");
+        checkEquals(2, partial.getNewEntries().length, "Entries above the high-water mark");
+        checkEquals(ids[2], partial.getNewEntries()[0].getMessageId(), "Oldest entry above the high-water mark");
+    }
+
+    private static void invalidVersionFallsBackToFullResync() {
+        Account account = new Account("sync_invalid", 2);
+        account.addMessageInMessageBox("bob", "hello");
+        long version = account.syncInbox(-1, -1).getVersion();
+
+        // Έκδοση μεγαλύτερη από την τρέχουσα (π.χ. από προηγούμενη εκτέλεση του server).
+        InboxDelta future = account.syncInbox(version + 5, Integer.MAX_VALUE);
+        check(future.isFullResync(), "A version from the future gets a full resync");
+        checkEquals(1, future.getNewEntries().length, "Full resync entries");
+    }
+
+    private static void changeLogFloor() {
+        Account account = new Account("sync_floor", 3);
+        int messages = 300;
+        for (int i = 0; i < messages; i++) {
+            account.addMessageInMessageBox("bob", "message " + i);
+        }
+        InboxDelta before = account.syncInbox(-1, -1);
+        long version = before.getVersion();
+        int highWaterMark = before.getNewEntries()[messages - 1].getMessageId();
+
+        // Κάθε ανάγνωση είναι μία μεταβολή, οπότε οι παλαιότερες απορρίπτονται από το (γεμάτο) ημερολόγιο.
+        checkEquals(messages, account.readOldestUnread(messages).length, "Messages read");
+        long current = account.syncInbox(-1, -1).getVersion();
+        checkEquals(version + messages, current, "One version per read");
+
+        InboxDelta stale = account.syncInbox(version, highWaterMark);
+        check(stale.isFullResync(), "A version older than the change log gets a full resync");
+        checkEquals(messages, stale.getNewEntries().length, "Full resync entries");
+        check(stale.getNewEntries()[0].isRead(), "Full resync carries the current read state");
+
+        // Η παλαιότερη έκδοση που εξυπηρετείται ακόμα με διαφορές είναι η έκδοση της νεότερης απορριφθείσας μεταβολής.
+        long floor = current;
+        while (!account.syncInbox(floor - 1, highWaterMark).isFullResync()) {
+            floor--;
+        }
+        InboxDelta oldest = account.syncInbox(floor, highWaterMark);
+        int logged = oldest.getReadIds().length;
+        check(!oldest.isFullResync(), "The floor version gets a delta");
+        checkEquals((int) (current - floor), logged, "Every change after the floor is logged");
+        check(logged > 0 && logged < messages, "The change log is bounded");
+        check(account.syncInbox(floor - 1, highWaterMark).isFullResync(), "Below the floor gets a full resync");
+    }
+
+    private static int[] idsOf(InboxEntry[] entries) {
+        int[] ids = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            ids[i] = entries[i].getMessageId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,191 @@
+package server;
+
+import common.InboxEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει τα στατιστικά χωρητικότητας (CapacityStatistics): το πλήθος των μηνυμάτων, τα μηνύματα και περιεχόμενα στη
+ * μνήμη και οι κατηγορίες μεγέθους γραμματοκιβωτίων παραμένουν ισορροπημένοι κατά την προσθήκη, τη διαγραφή, την
+ * εκκένωση και τη φόρτωση μηνυμάτων, ενώ η Account.discard αναιρεί πλήρως την καταγραφή ενός λογαριασμού. Ελέγχει
+ * επίσης την αντικατάσταση υποψηφίων της HeavyHitters. <br>
+ *
+ * Τα στατιστικά είναι κοινά για όλο το πρόγραμμα, οπότε συγκρίνονται οι μεταβολές τους και όχι οι απόλυτες τιμές.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class CapacityStatisticsTest {
+    private static final CapacityStatistics STATISTICS = new CapacityStatistics();
+
+    public static void main(String[] args) throws IOException {
+        Path spillDirectory = Files.createTempDirectory("capacity-statistics-test");
+        // Με όριο μνήμης 1 byte, κάθε γραμματοκιβώτιο εκκενώνεται μόλις απελευθερωθεί το κλείδωμά του.
+        MailboxStore store = new MailboxStore(1, spillDirectory);
+        try {
+            countersBalanceAcrossSpillAndReload(store);
+        } finally {
+            store.close();
+            Files.deleteIfExists(spillDirectory);
+        }
+        sharedBodiesAreCountedOnce();
+        discardUndoesTheAccount();
+        heavyHittersReplaceTheSmallestCandidate();
+        System.out.println("CapacityStatisticsTest: OK");
+    }
+
+    /** Οι τιμές των στατιστικών σε μία χρονική στιγμή. */
+    private static final class Counters {
+        final long accounts = STATISTICS.getAccounts();
+        final long messages = STATISTICS.getMessages();
+        final long heapMessages = CapacityStatistics.heapMessages();
+        final long heapBodies = CapacityStatistics.heapBodies();
+        final long bodyHeapBytes = STATISTICS.getBodyHeapBytes();
+        final long mailboxBytes = STATISTICS.getMailboxBytes();
+        final long[] sizes = mailboxSizes();
+
+        /**
+         * Ελέγχει ότι οι μεταβολές από τις τιμές base είναι οι αναμενόμενες.
+         * @param base Οι αρχικές τιμές.
+         * @param accounts Η αναμενόμενη μεταβολή του πλήθους λογαριασμών.
+         * @param messages Η αναμενόμενη μεταβολή του πλήθους μηνυμάτων.
+         * @param heapMessages Η αναμενόμενη μεταβολή του πλήθους μηνυμάτων στη μνήμη.
+         * @param heapBodies Η αναμενόμενη μεταβολή του πλήθους περιεχομένων στη μνήμη.
+         * @param sizes Οι αναμενόμενες μεταβολές των κατηγοριών μεγέθους.
+         * @param step Η περιγραφή του βήματος του ελέγχου.
+         */
+        void checkDelta(Counters base, long accounts, long messages, long heapMessages, long heapBodies, long[] sizes,
+                        String step) {
+            checkEquals(accounts, this.accounts - base.accounts, step + ": accounts");
+            checkEquals(messages, this.messages - base.messages, step + ": messages");
+            checkEquals(heapMessages, this.heapMessages - base.heapMessages, step + ": messages in memory");
+            checkEquals(heapBodies, this.heapBodies - base.heapBodies, step + ": bodies in memory");
+            for (int i = 0; i < sizes.length; i++) {
+                checkEquals(sizes[i], this.sizes[i] - base.sizes[i], step + ": mailbox size bucket " + i);
+            }
+        }
+    }
+
+    /**
+     * Επιστρέφει το πλήθος των γραμματοκιβωτίων κάθε κατηγορίας μεγέθους, από την αναφορά των στατιστικών.
+     * @return Το πλήθος ανά κατηγορία ("0", "1-9", "10-99", ...).
+     */
+    private static long[] mailboxSizes() {
+        String[] lines = STATISTICS.getMailboxSizeDistribution();
+        long[] sizes = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            sizes[i] = Long.parseLong(lines[i].substring(lines[i].lastIndexOf(' ') + 1));
+        }
+        return sizes;
+    }
+
+    private static void countersBalanceAcrossSpillAndReload(MailboxStore store) {
+        Counters base = new Counters();
+        Account account = new Account("capacity_spill", 1);
+        account.setMailboxStore(store);
+        new Counters().checkDelta(base, 1, 0, 0, 0, new long[]{1, 0, 0, 0, 0, 0}, "Empty account");
+
+        for (int i = 0; i < 12; i++) {
+            account.addMessageInMessageBox("bob", "message " + i);
+        }
+        check(store.getEvictions() > 0, "The mailbox is spilled to disk");
+        // Τα μηνύματα μετρώνται, αλλά έχουν αφαιρεθεί από τη μνήμη μαζί με τα περιεχόμενά τους.
+        Counters spilled = new Counters();
+        spilled.checkDelta(base, 1, 12, 0, 0, new long[]{0, 0, 1, 0, 0, 0}, "Spilled mailbox");
+        checkEquals(account.getMailboxBytes(), spilled.mailboxBytes - base.mailboxBytes, "Spilled mailbox: bytes");
+        checkEquals(0L, spilled.bodyHeapBytes - base.bodyHeapBytes, "Spilled mailbox: body bytes");
+
+        // Η φόρτωση και η νέα εκκένωση (εντός της getInboxEntries) δεν αλλάζουν τους μετρητές.
+        long misses = store.getMisses();
+        InboxEntry[] entries = account.getInboxEntries();
+        check(store.getMisses() > misses, "The mailbox is loaded back from disk");
+        new Counters().checkDelta(base, 1, 12, 0, 0, new long[]{0, 0, 1, 0, 0, 0}, "Reloaded mailbox");
+
+        // Διαγραφή μηνυμάτων μετά από φόρτωση: το γραμματοκιβώτιο επιστρέφει στην κατηγορία "1-9" και μετά στην "0".
+        int[] ids = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            ids[i] = entries[i].getMessageId();
+        }
+        account.deleteMessages(new int[]{ids[0], ids[1], ids[2], ids[3], ids[4], ids[5], ids[6], ids[7]});
+        new Counters().checkDelta(base, 1, 4, 0, 0, new long[]{0, 1, 0, 0, 0, 0}, "After deleting 8 messages");
+        account.deleteMessages(new int[]{ids[8], ids[9], ids[10], ids[11]});
+        Counters emptied = new Counters();
+        emptied.checkDelta(base, 1, 0, 0, 0, new long[]{1, 0, 0, 0, 0, 0}, "After deleting all messages");
+        checkEquals(0L, emptied.mailboxBytes - base.mailboxBytes, "After deleting all messages: bytes");
+        checkEquals(0L, emptied.bodyHeapBytes - base.bodyHeapBytes, "After deleting all messages: body bytes");
+    }
+
+    private static void sharedBodiesAreCountedOnce() {
+        Counters base = new Counters();
+        Account first = new Account("capacity_first", 2);
+        Account second = new Account("capacity_second", 3);
+        SharedMessageBody content = new SharedMessageBody("bob", "to both");
+        first.addMessageInMessageBox(content);
+        second.addMessageInMessageBox(content);
+        new Counters().checkDelta(base, 2, 2, 2, 1, new long[]{0, 2, 0, 0, 0, 0}, "Shared body");
+
+        first.deleteMessage(first.getInboxEntries()[0].getMessageId());
+        new Counters().checkDelta(base, 2, 1, 1, 1, new long[]{1, 1, 0, 0, 0, 0}, "Shared body after one deletion");
+        second.deleteMessage(second.getInboxEntries()[0].getMessageId());
+        Counters deleted = new Counters();
+        deleted.checkDelta(base, 2, 0, 0, 0, new long[]{2, 0, 0, 0, 0, 0}, "Shared body after both deletions");
+        checkEquals(0L, deleted.bodyHeapBytes - base.bodyHeapBytes, "Shared body after both deletions: body bytes");
+    }
+
+    private static void discardUndoesTheAccount() {
+        Counters base = new Counters();
+        Account account = new Account("capacity_discard", 4);
+        for (int i = 0; i < 3; i++) {
+            account.addMessageInMessageBox("bob", "message " + i);
+        }
+        new Counters().checkDelta(base, 1, 3, 3, 3, new long[]{0, 1, 0, 0, 0, 0}, "Account before discard");
+
+        account.discard();
+        Counters discarded = new Counters();
+        discarded.checkDelta(base, 0, 0, 0, 0, new long[]{0, 0, 0, 0, 0, 0}, "Discarded account");
+        checkEquals(0L, discarded.mailboxBytes - base.mailboxBytes, "Discarded account: bytes");
+        checkEquals(0L, discarded.bodyHeapBytes - base.bodyHeapBytes, "Discarded account: body bytes");
+        checkEquals(0L, account.getMessageCount(), "Discarded account: message count");
+    }
+
+    private static void heavyHittersReplaceTheSmallestCandidate() {
+        Map<String, Long> values = new HashMap<>();
+        HeavyHitters<String> top = new HeavyHitters<>(values::get, 3);
+        offer(top, values, "a", 1);
+        offer(top, values, "b", 2);
+        offer(top, values, "c", 3);
+        checkEquals(List.of("c", "b", "a"), keys(top.top(10)), "Candidates before the set is full");
+
+        // Με γεμάτο σύνολο, ο νέος υποψήφιος αντικαθιστά αυτόν με τη μικρότερη τιμή.
+        offer(top, values, "d", 4);
+        checkEquals(List.of("d", "c", "b"), keys(top.top(10)), "The smallest candidate is replaced");
+
+        // Μία τιμή που δεν ξεπερνά τη μικρότερη τιμή των υποψηφίων απορρίπτεται.
+        offer(top, values, "e", 2);
+        checkEquals(List.of("d", "c", "b"), keys(top.top(10)), "A value at the threshold is rejected");
+
+        // Η σύγκριση γίνεται με τις τρέχουσες τιμές, οπότε αντικαθίσταται ο υποψήφιος του οποίου η τιμή μειώθηκε.
+        values.put("c", 1L);
+        offer(top, values, "e", 3);
+        checkEquals(List.of("d", "e", "b"), keys(top.top(10)), "The candidate whose value decreased is replaced");
+        checkEquals(List.of("d", "e"), keys(top.top(2)), "The report is limited to the requested count");
+    }
+
+    /** Ορίζει την τιμή του item και το προτείνει στο top. */
+    private static void offer(HeavyHitters<String> top, Map<String, Long> values, String item, long value) {
+        values.put(item, value);
+        top.offer(item, value);
+    }
+
+    /** Επιστρέφει τα αντικείμενα μίας αναφοράς της HeavyHitters, με τη σειρά της αναφοράς. */
+    private static List<String> keys(List<Map.Entry<String, Long>> entries) {
+        return entries.stream().map(Map.Entry::getKey).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package server;
+
+import common.InboxEntry;
+import common.MessageView;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει την παράδοση μηνυμάτων χωρίς κλείδωμα (Account.addMessageInMessageBox) από πολλούς ταυτόχρονους
+ * αποστολείς προς τον ίδιο παραλήπτη, ενώ ο παραλήπτης διαβάζει το γραμματοκιβώτιό του: κανένα μήνυμα δε χάνεται, οι
+ * κωδικοί είναι μοναδικοί και αύξοντες και η σειρά αποστολής κάθε αποστολέα διατηρείται.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class ConcurrentDeliveryTest {
+    private static final int SENDERS = 8;
+
+    private static final int MESSAGES_PER_SENDER = 5000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Account account = new Account("concurrent_test", 1);
+
+        Thread[] senders = new Thread[SENDERS];
+        for (int s = 0; s < SENDERS; s++) {
+            String sender = "sender" + s;
+            senders[s] = new Thread(() -> {
+                for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                    account.addMessageInMessageBox(sender, Integer.toString(i));
+                }
+            });
+        }
+
+        // Ο παραλήπτης χρησιμοποιεί το γραμματοκιβώτιο ταυτόχρονα, ώστε μέρος των μηνυμάτων να μεταφέρεται από αυτόν.
+        Thread reader = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                account.getInboxSummary();
+            }
+        });
+        reader.start();
+        for (Thread sender : senders) {
+            sender.start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        reader.interrupt();
+        reader.join();
+
+        InboxEntry[] entries = account.getInboxEntries();
+        checkEquals(SENDERS * MESSAGES_PER_SENDER, entries.length, "Delivered messages");
+        checkEquals(SENDERS * MESSAGES_PER_SENDER, account.getInboxSummary().getUnreadMessages(), "Unread messages");
+
+        Set<Integer> ids = new HashSet<>();
+        int[] nextBody = new int[SENDERS];
+        for (int i = 0; i < entries.length; i++) {
+            check(ids.add(entries[i].getMessageId()), "Unique id " + entries[i].getMessageId());
+            check(i == 0 || entries[i - 1].getMessageId() < entries[i].getMessageId(), "Ascending ids");
+
+            MessageView message = account.readMessage(entries[i].getMessageId());
+            int sender = Integer.parseInt(message.getSender().substring("sender".length()));
+            checkEquals(Integer.toString(nextBody[sender]++), message.getBody(), "Order of " + message.getSender());
+        }
+        checkEquals(0, account.getInboxSummary().getUnreadMessages(), "Unread messages after reading");
+
+        System.out.println("ConcurrentDeliveryTest: OK");
+    }
+}
@@ -0,0 +1,102 @@
+package server;
+
+import common.InboxEntry;
+import common.MessageView;
+import common.StatusCode;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static common.Checks.check;
+import static common.Checks.checkEquals;
+
+/**
+ * Ελέγχει την κλιμακωτή αποθήκευση των γραμματοκιβωτίων (MailboxStore): ένα γραμματοκιβώτιο που εκκενώνεται στον
+ * δίσκο και φορτώνεται ξανά διατηρεί τους κωδικούς, τα περιεχόμενα και την κατάσταση ανάγνωσης των μηνυμάτων του,
+ * ενώ usernames που διαφέρουν μόνο σε πεζά/κεφαλαία αντιστοιχούν σε διαφορετικά αρχεία.
+ *
+ * @author Ioannis Baraklilis
+ */
+public class MailboxSpillTest {
+    public static void main(String[] args) throws IOException {
+        Path spillDirectory = Files.createTempDirectory("mailbox-spill-test");
+        // Με όριο μνήμης 1 byte, κάθε γραμματοκιβώτιο εκκενώνεται μόλις απελευθερωθεί το κλείδωμά του.
+        MailboxStore store = new MailboxStore(1, spillDirectory);
+        try {
+            spillAndRestorePreservesMessages(store);
+            usernamesDifferingInCaseUseDifferentFiles(store, spillDirectory);
+        } finally {
+            store.close();
+            Files.deleteIfExists(spillDirectory);
+        }
+        System.out.println("MailboxSpillTest: OK");
+    }
+
+    private static void spillAndRestorePreservesMessages(MailboxStore store) {
+        Account account = new Account("spill_test", 1);
+        account.setMailboxStore(store);
+        account.addMessageInMessageBox("bob", "first");
+        account.addMessageInMessageBox("Αλίκη", "δεύτερο\nμε αλλαγή γραμμής");
+        account.addMessageInMessageBox("bob", "third");
+        check(store.getEvictions() > 0, "The mailbox is spilled to disk");
+
+        InboxEntry[] entries = account.getInboxEntries();
+        checkEquals(3, entries.length, "Restored messages");
+        check(store.getMisses() > 0, "The mailbox is loaded back from disk");
+        int[] ids = {entries[0].getMessageId(), entries[1].getMessageId(), entries[2].getMessageId()};
+        check(ids[0] < ids[1] && ids[1] < ids[2], "Restored ids keep the arrival order");
+
+        MessageView second = account.readMessage(ids[1]);
+        checkEquals(StatusCode.OK, second.getStatus(), "Read a restored message by id");
+        checkEquals("Αλίκη", second.getSender(), "Restored sender");
+        checkEquals("δεύτερο\nμε αλλαγή γραμμής", second.getBody(), "Restored body");
+        checkEquals(StatusCode.OK, account.deleteMessage(ids[0]), "Delete a restored message by id");
+
+        // Η κατάσταση ανάγνωσης και η διαγραφή διατηρούνται μετά από νέα εκκένωση και φόρτωση.
+        long evictions = store.getEvictions();
+        entries = account.getInboxEntries();
+        check(store.getEvictions() > evictions, "The mailbox is spilled again");
+        checkEquals(2, entries.length, "Messages after the deletion");
+        checkEquals(ids[1], entries[0].getMessageId(), "Id of the read message");
+        check(entries[0].isRead(), "The read message stays read");
+        checkEquals(ids[2], entries[1].getMessageId(), "Id of the unread message");
+        check(!entries[1].isRead(), "The unread message stays unread");
+
+        // Η φόρτωση δε δεσμεύει νέους κωδικούς, οπότε το επόμενο μήνυμα παίρνει τον επόμενο κωδικό.
+        account.addMessageInMessageBox("carol", "fourth");
+        entries = account.getInboxEntries();
+        checkEquals(ids[2] + 1, entries[entries.length - 1].getMessageId(), "Id of a message added after restoring");
+        checkEquals(3, account.getInboxSummary().getTotalMessages(), "Message count after restoring");
+        checkEquals(2, account.getInboxSummary().getUnreadMessages(), "Unread count after restoring");
+    }
+
+    private static void usernamesDifferingInCaseUseDifferentFiles(MailboxStore store, Path spillDirectory)
+            throws IOException {
+        Account upper = new Account("Case_Test", 2);
+        Account lower = new Account("case_test", 3);
+        upper.setMailboxStore(store);
+        lower.setMailboxStore(store);
+        upper.addMessageInMessageBox("bob", "for upper");
+        lower.addMessageInMessageBox("bob", "for lower");
+        // Μία ακόμα λειτουργία σε κάθε λογαριασμό, ώστε και οι δύο να έχουν σίγουρα εκκενωθεί.
+        upper.getInboxSummary();
+        lower.getInboxSummary();
+
+        int files = 0;
+        try (DirectoryStream<Path> spilled = Files.newDirectoryStream(spillDirectory)) {
+            for (Path file : spilled) {
+                String name = file.getFileName().toString();
+                check(name.matches("[0-9a-f]+\\.mbox"), "Spill file names are lowercase hex: " + name);
+                files++;
+            }
+        }
+        checkEquals(3, files, "One spill file per mailbox");
+
+        checkEquals("for upper", upper.readMessage(upper.getInboxEntries()[0].getMessageId()).getBody(),
+                "Upper-case account restores its own mailbox");
+        checkEquals("for lower", lower.readMessage(lower.getInboxEntries()[0].getMessageId()).getBody(),
+                "Lower-case account restores its own mailbox");
+    }
+}